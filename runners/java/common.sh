@@ -65,12 +65,31 @@ run_mvn() {
     fi
 }
 
+# Opt-in parallel mode: JAVA_PARALLEL=true runs test classes concurrently (see
+# test/java/src/test/resources/junit-platform.properties); JAVA_PARALLELISM sets the
+# number of worker threads (default 4).
+parallel_mvn_args() {
+    if [ "${JAVA_PARALLEL:-false}" = "true" ]; then
+        local parallelism="${JAVA_PARALLELISM:-4}"
+        echo "-Djunit.jupiter.execution.parallel.enabled=true -Djunit.jupiter.execution.parallel.config.fixed.parallelism=$parallelism -Djunit.jupiter.execution.parallel.config.fixed.max-pool-size=$((parallelism * 2))"
+    fi
+}
+
+# JAVA_ENV=LOCAL runs the suite against the embedded stand-in server (id.dana.util.local)
+# instead of the DANA sandbox.
+env_mvn_args() {
+    if [ -n "${JAVA_ENV:-}" ]; then
+        echo "-Denv=$JAVA_ENV"
+    fi
+}
+
 run_mvn_test_once() {
     local test_arg="$1"
+    # shellcheck disable=SC2046
     if [ -n "$test_arg" ]; then
-        run_mvn test -Dtest="$test_arg" -q
+        run_mvn test -Dtest="$test_arg" -q $(parallel_mvn_args) $(env_mvn_args)
     else
-        run_mvn test -q
+        run_mvn test -q $(parallel_mvn_args) $(env_mvn_args)
     fi
 }
 
@@ -140,10 +159,55 @@ _mandatory_java_json_key() {
     esac
 }
 
+# Succeeds when products.<key>.java in the mandatory-tests JSON holds at least one entry. Uses jq
+# when installed; otherwise a small awk walk of the JSON structure, so in-JVM runs need no jq.
+_mandatory_has_java_entries() {
+    local key="$1" json="$2"
+    if command -v jq > /dev/null 2>&1; then
+        jq -e --arg m "$key" '(.products[$m].java // []) | length > 0' "$json" > /dev/null
+        return $?
+    fi
+    awk -v key="$key" '
+        { text = text $0 "\n" }
+        END {
+            n = length(text); depth = 0; found = 0; last = ""
+            for (i = 1; i <= n && !found; i++) {
+                c = substr(text, i, 1)
+                if (c == "\"") {
+                    last = ""
+                    for (i++; i <= n && (c = substr(text, i, 1)) != "\""; i++) {
+                        if (c == "\\") { i++; c = substr(text, i, 1) }
+                        last = last c
+                    }
+                } else if (c == ":") {
+                    name[depth] = last
+                } else if (c == "{" || c == "[") {
+                    # An array element opened directly under products.<key>.java
+                    if (depth == 4 && kind[4] == "[" && name[1] == "products" && name[2] == key && name[3] == "java") {
+                        found = 1
+                    }
+                    depth++; kind[depth] = c; name[depth] = ""
+                } else if (c == "}" || c == "]") {
+                    depth--
+                }
+            }
+            exit found ? 0 : 1
+        }' "$json"
+}
+
 get_mandatory_pattern_for_module() {
     module="$1"
     key=$(_mandatory_java_json_key "$module")
     json=$(_mandatory_tests_json)
+    # In-JVM runs resolve the entries in Java (id.dana.util.MandatoryTestSelector) as exact
+    # method selectors; only check that products.<key>.java has entries, so a module without any
+    # falls back like the jq path instead of running an empty selection.
+    if [ "${JAVA_RETRY_IN_JVM:-false}" = "true" ]; then
+        if _mandatory_has_java_entries "$key" "$json"; then
+            echo "@mandatory:$key"
+        fi
+        return 0
+    fi
     if ! command -v jq > /dev/null 2>&1; then
         echo "ERROR: jq is required to read mandatory-tests.json" >&2
         exit 1
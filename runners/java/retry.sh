@@ -69,6 +69,9 @@ extract_failed_maven_tests_from_surefire() {
             if (class == "") {
                 return
             }
+            # Template invocations (@Retry attempts, parameterized cases) are reported as
+            # method()[n] or method(Type)[n]; -Dtest needs the bare method name.
+            sub(/\(.*$/, "", method)
             if (method == "" || method == class || method ~ /^\[engine:/) {
                 add_class_only(class)
                 return
@@ -209,19 +212,69 @@ extract_failed_maven_tests_from_surefire() {
     printf '%s\n' "$result"
 }
 
+# Run-wide retry wait budget (RETRY_BUDGET_SECONDS, default 900) shared with the Java side
+# (id.dana.util.RetryCoordinator) through RETRY_BUDGET_STATE_FILE: milliseconds waited so far.
+java_retry_budget_take() {
+    local seconds="$1"
+    local budget_ms=$(( ${RETRY_BUDGET_SECONDS:-900} * 1000 ))
+    local used_ms=0
+    if [ -f "$RETRY_BUDGET_STATE_FILE" ]; then
+        used_ms=$(cat "$RETRY_BUDGET_STATE_FILE" 2>/dev/null)
+        case "$used_ms" in ''|*[!0-9]*) used_ms=0 ;; esac
+    fi
+    if [ $((used_ms + seconds * 1000)) -gt "$budget_ms" ]; then
+        print_warning "Retry budget exhausted: $((used_ms / 1000))s of $((budget_ms / 1000))s used, ${seconds}s more needed; stopping."
+        return 1
+    fi
+    echo $((used_ms + seconds * 1000)) > "$RETRY_BUDGET_STATE_FILE"
+}
+
+# JAVA_RETRY_IN_JVM=true compiles once and runs the selection through id.dana.util.RerunLauncher,
+# which reruns only the failed tests in the same JVM and writes the final results to
+# target/surefire-reports. Up to RETRY_MAX_ATTEMPTS attempts; id.dana.util.RetryCoordinator retries
+# only transient failures (network, timeouts, 5xx, 429), doubling the wait from
+# RETRY_INITIAL_DELAY_SECONDS per attempt, honouring Retry-After, capped by RETRY_MAX_DELAY_SECONDS
+# and drawn from the run-wide RETRY_BUDGET_SECONDS budget; java_retry_sleep_seconds is not used.
+run_in_jvm_test_cmd() {
+    local test_arg="${1:-}"
+    local classpath_file="$JAVA_TEST_DIR/target/test-classpath.txt"
+
+    print_info "In-JVM run with retries (RETRY_MAX_ATTEMPTS=$(resolve_retry_max_attempts))"
+    if [ -n "$test_arg" ]; then
+        print_info "Test filter: $test_arg"
+    fi
+    run_mvn -q test-compile dependency:build-classpath -Dmdep.outputFile="$classpath_file" || return $?
+
+    # shellcheck disable=SC2046
+    java $(parallel_mvn_args) $(env_mvn_args) \
+        -cp "$JAVA_TEST_DIR/target/test-classes:$JAVA_TEST_DIR/target/classes:$(cat "$classpath_file")" \
+        id.dana.util.RerunLauncher "$test_arg"
+}
+
 # Attempt 1 runs the full scoped suite; attempts 2-5 retry only failed/error tests.
 run_mvn_test_cmd() {
     local initial_test_arg="${1:-}"
+    if [ "${JAVA_RETRY_IN_JVM:-false}" = "true" ]; then
+        run_in_jvm_test_cmd "$initial_test_arg"
+        return $?
+    fi
     local surefire_reports="$JAVA_TEST_DIR/target/surefire-reports"
     local max_attempts
     max_attempts=$(resolve_retry_max_attempts)
     local attempt=1
     local current_test_arg="$initial_test_arg"
     local last_exit_code=1
+    local retry_plan="$surefire_reports/retry-plan.properties"
+
+    mkdir -p "$JAVA_TEST_DIR/target"
+    export RETRY_BUDGET_STATE_FILE="$JAVA_TEST_DIR/target/retry-budget-used-ms"
+    rm -f "$RETRY_BUDGET_STATE_FILE"
 
     while [ "$attempt" -le "$max_attempts" ]; do
         java_before_retry_attempt "$attempt"
         clear_surefire_reports
+        rm -f "$retry_plan"
+        export RETRY_ATTEMPT="$attempt"
 
         if [ "$attempt" -eq 1 ]; then
             print_info "Maven attempt 1/$max_attempts (full suite)"
@@ -245,18 +298,29 @@ run_mvn_test_cmd() {
             return "$last_exit_code"
         fi
 
-        local failed_test_arg=""
-        failed_test_arg=$(extract_failed_maven_tests_from_surefire "$surefire_reports") || failed_test_arg=""
+        local failed_test_arg="" sleep_delay
+        if [ -f "$retry_plan" ]; then
+            # Classified by RetryCoordinator: only transient (5xx, network, 429) failures are retried.
+            failed_test_arg=$(sed -n 's/^retryable=//p' "$retry_plan")
+            sleep_delay=$(sed -n 's/^delaySeconds=//p' "$retry_plan")
+            if [ -z "$failed_test_arg" ]; then
+                print_warning "No transient failures to retry: $(sed -n 's/^notRetryable=//p' "$retry_plan")"
+                return "$last_exit_code"
+            fi
+        else
+            failed_test_arg=$(extract_failed_maven_tests_from_surefire "$surefire_reports") || failed_test_arg=""
+            sleep_delay=$(java_retry_sleep_seconds "$attempt")
+        fi
         if [ -z "$failed_test_arg" ]; then
             print_warning "Could not determine failed tests for retry; stopping."
             return "$last_exit_code"
         fi
+        case "$sleep_delay" in ''|*[!0-9]*) sleep_delay=$(java_retry_sleep_seconds "$attempt") ;; esac
+        java_retry_budget_take "$sleep_delay" || return "$last_exit_code"
 
         print_info "Retrying failed/error tests only: $failed_test_arg"
         current_test_arg="$failed_test_arg"
 
-        local sleep_delay
-        sleep_delay=$(java_retry_sleep_seconds "$attempt")
         print_info "Attempt $attempt failed; sleeping ${sleep_delay}s before retry..."
         sleep "$sleep_delay"
         attempt=$((attempt + 1))
@@ -0,0 +1,126 @@
+package id.dana.benchmark;
+
+import id.dana.paymentgateway.PaymentPGUtil;
+import id.dana.paymentgateway.v1.model.CreateOrderByApiRequest;
+import id.dana.util.EmptyStringNullifier;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PaymentPGUtil#emptyStringToNull} on a fixture-built {@code CreateOrderByApiRequest}: the
+ * cached {@link EmptyStringNullifier} against the previous walk, which looked up fields, called
+ * {@code setAccessible} and resolved {@code getValue} on every call.
+ *
+ * <p>Only the first call finds empty strings to clear; what is measured afterwards is the walk
+ * itself, which is where the per-call lookups were.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmptyStringToNullBenchmark {
+
+  private static final String FIXTURE = "PaymentGateway.json#CreateOrder#CreateOrderApi";
+
+  private CreateOrderByApiRequest request;
+
+  @Setup
+  public void setUp() {
+    FixtureCase fixtureCase = FixtureCase.parse(FIXTURE);
+    request = PaymentPGUtil.getCreateOrderApiRequest(fixtureCase.jsonPathFile, fixtureCase.title,
+        fixtureCase.caseName);
+  }
+
+  @Benchmark
+  public Object cachedNullifier() {
+    EmptyStringNullifier.nullify(request);
+    return request;
+  }
+
+  @Benchmark
+  public Object reflectiveWalk() {
+    ReflectiveWalk.emptyStringToNull(request);
+    return request;
+  }
+
+  /** The implementation {@link EmptyStringNullifier} replaced, kept verbatim as the baseline. */
+  static final class ReflectiveWalk {
+
+    private ReflectiveWalk() {
+    }
+
+    static void emptyStringToNull(Object obj) {
+      if (obj == null) return;
+      Class<?> c = obj.getClass();
+      if (c.isEnum() || c.isPrimitive() || c == String.class) return;
+      if (c.getPackage() != null && (c.getPackage().getName().startsWith("java.") || c.getPackage().getName().startsWith("javax."))) return;
+
+      if (obj instanceof List) {
+        for (Object item : (List<?>) obj) emptyStringToNull(item);
+        return;
+      }
+      if (obj instanceof Map) return;
+
+      for (Field f : getAllFields(c)) {
+        if (Modifier.isStatic(f.getModifiers())) continue;
+        f.setAccessible(true);
+        try {
+          Object val = f.get(obj);
+          if (f.getType() == String.class && "".equals(val)) {
+            f.set(obj, null);
+          } else if (val != null && f.getType().isEnum()) {
+            String enumStr = null;
+            try {
+              Method getValue = val.getClass().getMethod("getValue");
+              Object v = getValue.invoke(val);
+              enumStr = v == null ? null : v.toString();
+            } catch (NoSuchMethodException e) {
+              enumStr = ((Enum<?>) val).name();
+            } catch (Exception e) {
+              enumStr = ((Enum<?>) val).name();
+            }
+            if (enumStr != null && enumStr.isEmpty()) {
+              f.set(obj, null);
+            }
+          } else if (val != null && !val.getClass().isEnum() && !isSimpleType(val.getClass())) {
+            emptyStringToNull(val);
+          } else if (val instanceof List) {
+            for (Object item : (List<?>) val) emptyStringToNull(item);
+          }
+        } catch (IllegalAccessException ignored) { }
+      }
+    }
+
+    private static List<Field> getAllFields(Class<?> c) {
+      List<Field> list = new ArrayList<>();
+      while (c != null && c != Object.class) {
+        for (Field f : c.getDeclaredFields()) list.add(f);
+        c = c.getSuperclass();
+      }
+      return list;
+    }
+
+    private static boolean isSimpleType(Class<?> c) {
+      return c.isPrimitive() || c == String.class || Number.class.isAssignableFrom(c)
+          || c == Boolean.class || c == Character.class || c == java.util.Date.class
+          || c.getPackage() != null && (c.getPackage().getName().startsWith("java.") || c.getPackage().getName().startsWith("javax."));
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package id.dana.benchmark;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * One {@code file#title#case[#modelClass]} coordinate in the real component fixtures, as used in
+ * the benchmarks' {@code @Param} values.
+ *
+ * <p>Fixtures are read from {@code -DfixtureDir=...}, defaulting to the Java suite's
+ * {@code src/test/resources/request/components} seen from this module or from the repository root.
+ */
+final class FixtureCase {
+
+  private static final String[] DEFAULT_DIRS = {
+      "../java/src/test/resources/request/components",
+      "test/java/src/test/resources/request/components"
+  };
+
+  final String jsonPathFile;
+  final String title;
+  final String caseName;
+  final Class<?> modelClass;
+
+  private FixtureCase(String jsonPathFile, String title, String caseName, Class<?> modelClass) {
+    this.jsonPathFile = jsonPathFile;
+    this.title = title;
+    this.caseName = caseName;
+    this.modelClass = modelClass;
+  }
+
+  static FixtureCase parse(String coordinate) {
+    String[] parts = coordinate.split("#");
+    if (parts.length < 3) {
+      throw new IllegalArgumentException("Expected file#title#case[#modelClass], got " + coordinate);
+    }
+    Class<?> modelClass = null;
+    if (parts.length > 3) {
+      try {
+        modelClass = Class.forName(parts[3]);
+      } catch (ClassNotFoundException e) {
+        throw new IllegalArgumentException("Unknown model class " + parts[3], e);
+      }
+    }
+    return new FixtureCase(fixtureDir().resolve(parts[0]).toString(), parts[1], parts[2], modelClass);
+  }
+
+  static Path fixtureDir() {
+    String configured = System.getProperty("fixtureDir");
+    if (configured != null && !configured.isEmpty()) {
+      return Paths.get(configured).toAbsolutePath().normalize();
+    }
+    for (String candidate : DEFAULT_DIRS) {
+      Path dir = Paths.get(candidate).toAbsolutePath().normalize();
+      if (Files.isDirectory(dir)) {
+        return dir;
+      }
+    }
+    throw new IllegalStateException("Component fixtures not found under " + new File(".").getAbsolutePath()
+        + "; pass -DfixtureDir=<path to request/components>");
+  }
+}
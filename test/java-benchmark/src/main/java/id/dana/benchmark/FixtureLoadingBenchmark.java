@@ -0,0 +1,76 @@
+package id.dana.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.dana.invoker.JSON;
+import id.dana.util.FixtureRepository;
+import id.dana.util.TestUtil;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of turning a fixture case into a request: re-parsing the file (what every
+ * {@code TestUtil.getRequest} did before {@link FixtureRepository}), the cached node, the cached node
+ * with {@code ${VAR}} resolved, and the full bind to the SDK model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixtureLoadingBenchmark {
+
+  private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
+
+  @Param({
+      "PaymentGateway.json#CreateOrder#CreateOrderApi#id.dana.paymentgateway.v1.model.CreateOrderByApiRequest",
+      "PaymentGateway.json#CancelOrder#CancelOrderValidScenario#id.dana.paymentgateway.v1.model.CancelOrderRequest",
+      "Widget.json#Payment#PaymentSuccess#id.dana.widget.v1.model.WidgetPaymentRequest",
+      "Disbursement.json#TransferToDana#TopUpCustomerValid#id.dana.disbursement.v1.model.TransferToDanaRequest"
+  })
+  public String fixture;
+
+  private FixtureCase fixtureCase;
+  private File file;
+
+  @Setup
+  public void setUp() {
+    fixtureCase = FixtureCase.parse(fixture);
+    file = new File(fixtureCase.jsonPathFile);
+    FixtureRepository.getRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+  }
+
+  @Benchmark
+  public JsonNode parseFixtureFile() throws IOException {
+    return objectMapper.readTree(file).path(fixtureCase.title).path(fixtureCase.caseName).path("request");
+  }
+
+  @Benchmark
+  public JsonNode cachedRequest() {
+    return FixtureRepository.getRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+  }
+
+  @Benchmark
+  public JsonNode resolvedRequest() {
+    return FixtureRepository.getResolvedRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+  }
+
+  @Benchmark
+  public Object requestModel() {
+    return TestUtil.getRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName,
+        fixtureCase.modelClass);
+  }
+}
@@ -0,0 +1,249 @@
+package id.dana.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import id.dana.invoker.JSON;
+import id.dana.paymentgateway.PaymentPGUtil;
+import id.dana.util.ExpectationMatcher;
+import id.dana.util.FixtureRepository;
+import id.dana.util.SnapJson;
+import id.dana.util.TestUtil;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The assertion side of a test: walking the expected fixture response against an actual one
+ * ({@link TestUtil#compareJsonObjects}), the same check through a compiled
+ * {@link ExpectationMatcher} streaming an SDK-like response object, and the sorted compact JSON used for SNAP body hashes
+ * ({@link PaymentPGUtil#compactJsonForSnap} and the {@link SnapJson#canonicalBytes} that goes on the
+ * wire).
+ *
+ * <p>The actual response is the expected one with every placeholder filled in, i.e. the passing
+ * case that dominates a real run.
+ *
+ * <p>Before the first trial the compiled matcher is checked against the tree walk on every case of
+ * every component fixture, with that passing response and with a mutated one; the run fails if
+ * their difference lists are not the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseComparisonBenchmark {
+
+  @Param({
+      "PaymentGateway.json#CreateOrder#CreateOrderApi",
+      "PaymentGateway.json#QueryPayment#QueryPaymentPaidOrder",
+      "Widget.json#QueryOrder#QueryOrderSuccessPaid",
+      "Disbursement.json#TransferToDanaInquiryStatus#InquiryTopUpStatusValidPaid"
+  })
+  public String fixture;
+
+  private JsonNode expected;
+  private JsonNode actual;
+  private JsonNode request;
+  private Object actualModel;
+  private ExpectationMatcher matcher;
+
+  private static boolean equivalenceChecked;
+
+  @Setup
+  public void setUp() throws IOException {
+    checkEquivalence();
+    FixtureCase fixtureCase = FixtureCase.parse(fixture);
+    expected = FixtureRepository.getResponse(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+    actual = filled(expected);
+    request = FixtureRepository.getResolvedRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+    actualModel = JSON.getDefault().getMapper().convertValue(actual, Object.class);
+    matcher = ExpectationMatcher.compile(expected);
+  }
+
+  @Benchmark
+  public List<TestUtil.Difference> compareJsonObjects() {
+    List<TestUtil.Difference> differences = new ArrayList<>();
+    TestUtil.compareJsonObjects(expected, actual, "", differences);
+    return differences;
+  }
+
+  /** What {@code processAssertResponse} did before: the whole response as a tree, then the walk. */
+  @Benchmark
+  public List<TestUtil.Difference> valueToTreeAndCompare() {
+    List<TestUtil.Difference> differences = new ArrayList<>();
+    TestUtil.compareJsonObjects(expected, JSON.getDefault().getMapper().valueToTree(actualModel), "",
+        differences);
+    return differences;
+  }
+
+  @Benchmark
+  public List<TestUtil.Difference> compiledExpectation() throws IOException {
+    return matcher.match(actualModel, null);
+  }
+
+  @Benchmark
+  public String compactJsonForSnap() {
+    return PaymentPGUtil.compactJsonForSnap(request);
+  }
+
+  @Benchmark
+  public byte[] canonicalBytes() {
+    return SnapJson.canonicalBytes(request);
+  }
+
+  /** Fails unless {@link ExpectationMatcher} and the tree walk agree on every component fixture case. */
+  private static synchronized void checkEquivalence() throws IOException {
+    if (equivalenceChecked) {
+      return;
+    }
+    int checked = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(FixtureCase.fixtureDir(), "*.json")) {
+      for (Path file : files) {
+        String jsonPathFile = file.toString();
+        for (Iterator<String> titles = JSON.getDefault().getMapper().readTree(file.toFile()).fieldNames();
+            titles.hasNext(); ) {
+          String title = titles.next();
+          for (String caseName : FixtureRepository.caseNames(jsonPathFile, title)) {
+            JsonNode expected = FixtureRepository.getResolved(jsonPathFile, title, caseName, "response");
+            if (expected.isMissingNode()) {
+              continue;
+            }
+            String where = file.getFileName() + "#" + title + "#" + caseName;
+            JsonNode filled = filled(expected);
+            assertSameDifferences(where, expected, filled);
+            assertSameDifferences(where + " (mutated)", expected, mutated(filled));
+            checked++;
+          }
+        }
+      }
+    }
+    if (checked == 0) {
+      throw new IllegalStateException("No fixture responses found under " + FixtureCase.fixtureDir());
+    }
+    equivalenceChecked = true;
+  }
+
+  private static void assertSameDifferences(String where, JsonNode expected, JsonNode actual) {
+    List<TestUtil.Difference> walked = new ArrayList<>();
+    TestUtil.compareJsonObjects(expected, actual, "", walked);
+    ExpectationMatcher compiled = ExpectationMatcher.compile(expected);
+    Object actualModel = JSON.getDefault().getMapper().convertValue(actual, Object.class);
+    List<TestUtil.Difference> streamed;
+    List<TestUtil.Difference> parsed;
+    try {
+      streamed = compiled.match(actualModel, null);
+      parsed = compiled.match(actual.toString(), null);
+    } catch (IOException e) {
+      throw new UncheckedIOException(where, e);
+    }
+    String expectedDifferences = describe(walked);
+    if (!expectedDifferences.equals(describe(streamed)) || !expectedDifferences.equals(describe(parsed))) {
+      throw new IllegalStateException("ExpectationMatcher disagrees with compareJsonObjects for " + where
+          + ": tree walk " + expectedDifferences + ", model " + describe(streamed) + ", raw body "
+          + describe(parsed));
+    }
+  }
+
+  /** Numbers compare by their JSON text: the tree and the stream may pick different node types. */
+  private static String describe(List<TestUtil.Difference> differences) {
+    StringBuilder text = new StringBuilder("[");
+    for (TestUtil.Difference difference : differences) {
+      text.append(difference.path).append('=').append(difference.expected).append("->")
+          .append(difference.actual).append(';');
+    }
+    return text.append(']').toString();
+  }
+
+  /** Changes every text and boolean value, drops the last field of each object and adds one. */
+  private static JsonNode mutated(JsonNode node) {
+    JsonNode copy = node.deepCopy();
+    mutate(copy);
+    return copy;
+  }
+
+  private static void mutate(JsonNode node) {
+    if (node.isObject()) {
+      ObjectNode object = (ObjectNode) node;
+      List<String> names = new ArrayList<>();
+      object.fieldNames().forEachRemaining(names::add);
+      for (String name : names) {
+        JsonNode value = object.get(name);
+        if (value.isTextual()) {
+          object.set(name, TextNode.valueOf(value.asText() + "-mutated"));
+        } else if (value.isBoolean()) {
+          object.set(name, BooleanNode.valueOf(!value.asBoolean()));
+        } else {
+          mutate(value);
+        }
+      }
+      if (!names.isEmpty()) {
+        object.remove(names.get(names.size() - 1));
+      }
+      object.put("unexpectedField", "mutated");
+    } else if (node.isArray()) {
+      ArrayNode array = (ArrayNode) node;
+      for (int i = 0; i < array.size(); i++) {
+        if (array.get(i).isTextual()) {
+          array.set(i, TextNode.valueOf(array.get(i).asText() + "-mutated"));
+        } else {
+          mutate(array.get(i));
+        }
+      }
+    }
+  }
+
+  private static JsonNode filled(JsonNode node) {
+    JsonNode copy = node.deepCopy();
+    fill(copy);
+    return copy;
+  }
+
+  private static void fill(JsonNode node) {
+    if (node.isObject()) {
+      Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (isPlaceholder(field.getValue())) {
+          ((ObjectNode) node).set(field.getKey(), TextNode.valueOf("20240101000000123456"));
+        } else {
+          fill(field.getValue());
+        }
+      }
+    } else if (node.isArray()) {
+      ArrayNode array = (ArrayNode) node;
+      for (int i = 0; i < array.size(); i++) {
+        if (isPlaceholder(array.get(i))) {
+          array.set(i, TextNode.valueOf("20240101000000123456"));
+        } else {
+          fill(array.get(i));
+        }
+      }
+    }
+  }
+
+  private static boolean isPlaceholder(JsonNode node) {
+    return node.isTextual() && node.asText().startsWith("${");
+  }
+}
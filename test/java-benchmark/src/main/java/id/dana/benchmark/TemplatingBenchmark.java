@@ -0,0 +1,65 @@
+package id.dana.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import id.dana.util.FixtureRepository;
+import id.dana.util.TestUtil;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code ${VAR}} substitution on both sides of a test: environment templating of the request
+ * ({@link TestUtil#replaceTemplateValues}) and per-test variables in the expected response
+ * ({@link TestUtil#replaceVariables}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplatingBenchmark {
+
+  @Param({
+      "PaymentGateway.json#CreateOrder#CreateOrderApi",
+      "PaymentGateway.json#QueryPayment#QueryPaymentPaidOrder",
+      "Widget.json#Payment#PaymentSuccess",
+      "Disbursement.json#TransferToDanaInquiryStatus#InquiryTopUpStatusValidPaid"
+  })
+  public String fixture;
+
+  private JsonNode request;
+  private JsonNode response;
+  private Map<String, Object> variables;
+
+  @Setup
+  public void setUp() {
+    FixtureCase fixtureCase = FixtureCase.parse(fixture);
+    request = FixtureRepository.getRequest(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+    response = FixtureRepository.getResponse(fixtureCase.jsonPathFile, fixtureCase.title, fixtureCase.caseName);
+    variables = new HashMap<>();
+    variables.put("partnerReferenceNo", "2b6f1d3e-9c1a-4c55-8a0e-4d2f7c9b1e30");
+    variables.put("originalPartnerReferenceNo", "2b6f1d3e-9c1a-4c55-8a0e-4d2f7c9b1e30");
+  }
+
+  @Benchmark
+  public JsonNode replaceTemplateValues() {
+    return TestUtil.replaceTemplateValues(request);
+  }
+
+  @Benchmark
+  public JsonNode replaceVariables() {
+    return TestUtil.replaceVariables(response, variables);
+  }
+}
@@ -1,10 +1,8 @@
 package id.dana.paymentgateway;
 
-import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
+import id.dana.util.BrowserPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,10 +80,8 @@ public final class PaymentPGBrowser {
         String buttonPay = ".btn.btn-primary";
         String textAlreadyPaid = "//*[contains(text(),'order is already paid.')]";
 
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = playwright.webkit().launch(new BrowserType.LaunchOptions().setHeadless(true));
-            playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(true));
-            Page page = browser.newPage();
+        try (BrowserPool.Session session = BrowserPool.open()) {
+            Page page = session.page();
 
             log.info("Redirect to page payment: {}", redirectUrlPay);
             page.navigate(redirectUrlPay);
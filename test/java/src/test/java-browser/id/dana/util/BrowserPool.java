@@ -0,0 +1,239 @@
+package id.dana.util;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM-wide pool of long-lived Playwright browsers, so a payment or OAuth flow no longer pays for
+ * {@code Playwright.create()} and a browser launch every time. Built only when the
+ * {@code with-playwright} Maven profile is active.
+ *
+ * <pre>
+ * try (BrowserPool.Session session = BrowserPool.open()) {
+ *     Page page = session.page();
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>Each engine gets {@code BROWSER_POOL_SIZE} browsers (default 2), launched in parallel the
+ * first time the engine is asked for and closed at JVM exit. A session holds one browser
+ * exclusively, which is what Playwright's threading rules require, and works in a fresh
+ * {@link BrowserContext} that is closed with the session, so cookies and storage never leak between
+ * flows. A browser that is no longer connected when it is handed out or returned is closed and
+ * replaced. Unless {@code BROWSER_ROUTE_FILTER=false}, each context also gets the
+ * {@link BrowserRouteFilter}, so images, fonts and analytics are never fetched. Session time,
+ * waiting for a free browser included, is reported to {@link PerfReport}.
+ */
+public final class BrowserPool {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+    private static final int SIZE = Math.max(1, Integer.parseInt(ConfigUtil.getConfig("BROWSER_POOL_SIZE", "2")));
+
+    private static final boolean HEADLESS = Boolean.parseBoolean(ConfigUtil.getConfig("BROWSER_HEADLESS", "true"));
+
+    private static final Map<Engine, Pool> POOLS = new ConcurrentHashMap<>();
+
+    private static final List<Slot> ALL = new CopyOnWriteArrayList<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserPool::closeAll, "browser-pool-shutdown"));
+    }
+
+    public enum Engine {
+        WEBKIT,
+        CHROMIUM,
+        FIREFOX;
+
+        BrowserType type(Playwright playwright) {
+            switch (this) {
+                case CHROMIUM:
+                    return playwright.chromium();
+                case FIREFOX:
+                    return playwright.firefox();
+                default:
+                    return playwright.webkit();
+            }
+        }
+    }
+
+    private BrowserPool() {
+    }
+
+    /** Session on a pooled WebKit browser, the engine the DANA checkout flows run on. */
+    public static Session open() {
+        return open(Engine.WEBKIT);
+    }
+
+    public static Session open(Engine engine) {
+        long start = System.nanoTime();
+        Pool pool = POOLS.computeIfAbsent(engine, Pool::start);
+        Slot slot = pool.take();
+        try {
+            BrowserContext context = slot.browser.newContext();
+            if (BrowserRouteFilter.ENABLED) {
+                BrowserRouteFilter.install(context);
+            }
+            return new Session(pool, slot, context, context.newPage(), start);
+        } catch (RuntimeException e) {
+            pool.release(slot);
+            throw e;
+        }
+    }
+
+    private static void closeAll() {
+        for (Slot slot : ALL) {
+            slot.close();
+        }
+    }
+
+    /** One flow's view of a pooled browser; closing it closes the context and returns the browser. */
+    public static final class Session implements AutoCloseable {
+
+        private final Pool pool;
+        private final Slot slot;
+        private final BrowserContext context;
+        private final Page page;
+        private final long start;
+
+        private Session(Pool pool, Slot slot, BrowserContext context, Page page, long start) {
+            this.pool = pool;
+            this.slot = slot;
+            this.context = context;
+            this.page = page;
+            this.start = start;
+        }
+
+        public Page page() {
+            return page;
+        }
+
+        public BrowserContext context() {
+            return context;
+        }
+
+        @Override
+        public void close() {
+            try {
+                context.close();
+            } catch (RuntimeException e) {
+                log.warn("Closing browser context failed: {}", e.getMessage());
+            } finally {
+                pool.release(slot);
+                PerfReport.browser(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static final class Pool {
+
+        private final Engine engine;
+        private final BlockingQueue<Slot> idle = new LinkedBlockingQueue<>();
+
+        private Pool(Engine engine) {
+            this.engine = engine;
+        }
+
+        static Pool start(Engine engine) {
+            Pool pool = new Pool(engine);
+            long start = System.nanoTime();
+            List<CompletableFuture<Slot>> launches = new ArrayList<>(SIZE);
+            for (int i = 0; i < SIZE; i++) {
+                launches.add(CompletableFuture.supplyAsync(() -> Slot.launch(engine)));
+            }
+            for (CompletableFuture<Slot> launch : launches) {
+                pool.idle.add(launch.join());
+            }
+            log.info("[BROWSER] {} {} browser(s) ready in {} ms", SIZE, engine,
+                    (System.nanoTime() - start) / 1_000_000);
+            return pool;
+        }
+
+        Slot take() {
+            Slot slot;
+            try {
+                slot = idle.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a pooled browser", e);
+            }
+            return healthy(slot);
+        }
+
+        void release(Slot slot) {
+            Slot returned = slot;
+            if (!slot.browser.isConnected()) {
+                try {
+                    returned = replace(slot);
+                } catch (RuntimeException e) {
+                    log.warn("[BROWSER] Relaunching {} failed, retrying on next use: {}", engine, e.getMessage());
+                }
+            }
+            idle.add(returned);
+        }
+
+        private Slot healthy(Slot slot) {
+            if (slot.browser.isConnected()) {
+                return slot;
+            }
+            try {
+                return replace(slot);
+            } catch (RuntimeException e) {
+                idle.add(slot);
+                throw e;
+            }
+        }
+
+        private Slot replace(Slot slot) {
+            log.warn("[BROWSER] {} browser disconnected, launching a replacement", engine);
+            slot.close();
+            return Slot.launch(engine);
+        }
+    }
+
+    private static final class Slot {
+
+        private final Playwright playwright;
+        private final Browser browser;
+
+        private Slot(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+
+        static Slot launch(Engine engine) {
+            Playwright playwright = Playwright.create();
+            try {
+                Browser browser = engine.type(playwright).launch(new BrowserType.LaunchOptions().setHeadless(HEADLESS));
+                Slot slot = new Slot(playwright, browser);
+                ALL.add(slot);
+                return slot;
+            } catch (RuntimeException e) {
+                playwright.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            ALL.remove(this);
+            try {
+                playwright.close();
+            } catch (RuntimeException e) {
+                log.debug("Closing Playwright failed: {}", e.getMessage());
+            }
+        }
+    }
+}
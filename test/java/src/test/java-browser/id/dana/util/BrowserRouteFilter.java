@@ -0,0 +1,212 @@
+package id.dana.util;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Route filter installed on every {@link BrowserPool} context, so the checkout and OAuth pages load
+ * only what the flows read: the documents, scripts, stylesheets and XHRs that build the DOM.
+ *
+ * <p>Configuration (all optional):
+ * <ul>
+ *     <li>{@code BROWSER_ROUTE_FILTER} - {@code false} turns the filter off (default {@code true})</li>
+ *     <li>{@code BROWSER_BLOCKED_RESOURCE_TYPES} - Playwright resource types to abort
+ *     (default {@code image,media,font})</li>
+ *     <li>{@code BROWSER_BLOCKED_HOSTS} - hosts to abort, subdomains included (default: common
+ *     analytics and tag-manager hosts)</li>
+ *     <li>{@code BROWSER_ALLOWED_HOSTS} - if set, sub-resources from any other host are aborted;
+ *     top-level navigations are always let through</li>
+ * </ul>
+ *
+ * <p>{@link #captureRedirect} answers the OAuth redirect itself, so the {@code authCode} is read
+ * from the request URL (or, after a server-side redirect chain, the page URL) and the redirect
+ * target (google.com by default) is never loaded.
+ */
+public final class BrowserRouteFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserRouteFilter.class);
+
+    static final boolean ENABLED = Boolean.parseBoolean(ConfigUtil.getConfig("BROWSER_ROUTE_FILTER", "true"));
+
+    private static final Set<String> BLOCKED_TYPES =
+            csv(ConfigUtil.getConfig("BROWSER_BLOCKED_RESOURCE_TYPES", "image,media,font"));
+
+    private static final Set<String> BLOCKED_HOSTS = csv(ConfigUtil.getConfig("BROWSER_BLOCKED_HOSTS",
+            "google-analytics.com,googletagmanager.com,doubleclick.net,facebook.net,hotjar.com,"
+                    + "clarity.ms,nr-data.net,newrelic.com"));
+
+    private static final Set<String> ALLOWED_HOSTS = csv(ConfigUtil.getConfig("BROWSER_ALLOWED_HOSTS", ""));
+
+    private static final String REDIRECT_PAGE = "<html><body></body></html>";
+
+    private BrowserRouteFilter() {
+    }
+
+    /** Aborts the non-essential requests of every page in {@code context}. */
+    static void install(BrowserContext context) {
+        context.route(url -> true, BrowserRouteFilter::filter);
+    }
+
+    /**
+     * Answers the first request to {@code redirectUrl}'s host that carries an {@code authCode} with an
+     * empty page and remembers its URL. Routes added later take precedence in Playwright, so this
+     * wins over the filter installed by {@link BrowserPool}.
+     */
+    public static RedirectCapture captureRedirect(BrowserContext context, String redirectUrl) {
+        RedirectCapture capture = new RedirectCapture(host(redirectUrl));
+        context.route(capture::matches, route -> {
+            capture.url = route.request().url();
+            route.fulfill(new Route.FulfillOptions()
+                    .setStatus(200)
+                    .setContentType("text/html")
+                    .setBody(REDIRECT_PAGE));
+        });
+        return capture;
+    }
+
+    private static void filter(Route route) {
+        Request request = route.request();
+        if (blocked(request)) {
+            log.debug("[BROWSER] Blocked {} {}", request.resourceType(), request.url());
+            route.abort();
+        } else {
+            route.resume();
+        }
+    }
+
+    private static boolean blocked(Request request) {
+        if (BLOCKED_TYPES.contains(request.resourceType())) {
+            return true;
+        }
+        String host = host(request.url());
+        if (host == null) {
+            return false;
+        }
+        if (matches(host, BLOCKED_HOSTS)) {
+            return true;
+        }
+        return !ALLOWED_HOSTS.isEmpty() && !request.isNavigationRequest() && !matches(host, ALLOWED_HOSTS);
+    }
+
+    private static boolean matches(String host, Set<String> domains) {
+        for (String domain : domains) {
+            if (host.equals(domain) || host.endsWith("." + domain)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? null : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Set<String> csv(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> items = new LinkedHashSet<>();
+        for (String item : Arrays.asList(value.split(","))) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return Collections.unmodifiableSet(items);
+    }
+
+    /** The OAuth redirect request, once the browser has made it. */
+    public static final class RedirectCapture {
+
+        private final String host;
+        private volatile String url;
+
+        private RedirectCapture(String host) {
+            this.host = host == null ? null : stripWww(host);
+        }
+
+        /** Whether {@code candidate} is the redirect: same host (with or without {@code www.}) and an {@code authCode}. */
+        public boolean matches(String candidate) {
+            if (host == null || candidate == null || !candidate.contains("authCode=")) {
+                return false;
+            }
+            String candidateHost = host(candidate);
+            return candidateHost != null && host.equals(stripWww(candidateHost));
+        }
+
+        /** Redirect URL, or {@code null} while the browser has not requested it yet. */
+        public String url() {
+            return url;
+        }
+
+        /** Decoded query parameter of the captured redirect, or {@code null}. */
+        public String queryParam(String name) {
+            return queryParam(url, name);
+        }
+
+        /**
+         * Decoded query parameter of the redirect. A redirect reached through a server-side redirect
+         * chain never passes the route, so {@code pageUrl} (the page's URL once it got there) is
+         * read when nothing was captured.
+         *
+         * @throws IllegalStateException if neither URL carries the parameter
+         */
+        public String requireQueryParam(String name, String pageUrl) {
+            String value = queryParam(url, name);
+            if (value == null || value.isEmpty()) {
+                value = queryParam(pageUrl, name);
+            }
+            if (value == null || value.isEmpty()) {
+                throw new IllegalStateException("No " + name + " in the OAuth redirect (captured " + url
+                        + ", page at " + pageUrl + ")");
+            }
+            return value;
+        }
+
+        private static String queryParam(String redirectUrl, String name) {
+            if (redirectUrl == null) {
+                return null;
+            }
+            String query;
+            try {
+                query = URI.create(redirectUrl).getRawQuery();
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            if (query == null) {
+                return null;
+            }
+            for (String pair : query.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    try {
+                        return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8.name());
+                    } catch (UnsupportedEncodingException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static String stripWww(String host) {
+            return host.startsWith("www.") ? host.substring(4) : host;
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package id.dana.widget;
 
-import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.WaitUntilState;
+import id.dana.util.BrowserPool;
+import id.dana.util.BrowserRouteFilter;
 import id.dana.util.ConfigUtil;
 import id.dana.util.TestUtil;
 import org.slf4j.Logger;
@@ -22,18 +22,19 @@ public final class OauthBrowser {
 
     public static String getOauthViaView(String urlRedirectLinkAuthCode, String phoneNumber, String pin) {
         String authCode;
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = playwright.webkit().launch();
-            playwright.firefox().launch(new BrowserType.LaunchOptions());
-            Page page = browser.newPage();
+        try (BrowserPool.Session session = BrowserPool.open()) {
+            BrowserRouteFilter.RedirectCapture redirect =
+                    BrowserRouteFilter.captureRedirect(session.context(), REDIRECT_URL_OAUTH);
+            Page page = session.page();
             page.navigate(urlRedirectLinkAuthCode);
 
-            Thread.sleep(5000);
-
             String inputPhoneNumber = ".desktop-input>.txt-input-phone-number-field";
             String buttonSubmitPhoneNumber = ".agreement__button>.btn-continue";
             String inputPin = ".txt-input-pin-field";
 
+            // Wait for the login form instead of a fixed delay
+            page.locator(buttonSubmitPhoneNumber).waitFor();
+
             if (page.locator(inputPhoneNumber).isVisible()) {
                 page.locator(inputPhoneNumber).fill(phoneNumber);
             }
@@ -41,16 +42,14 @@ public final class OauthBrowser {
 
             page.locator(inputPin).fill(pin);
 
-            page.waitForURL("**/**authCode**", new Page.WaitForURLOptions().setTimeout(15000));
-
-            String currentUrl = page.url();
-            String tempCurrentUrl = currentUrl.replace(REDIRECT_URL_OAUTH + "/?", "");
+            // The redirect is answered by the route filter, so only its commit is waited for
+            page.waitForURL(redirect::matches, new Page.WaitForURLOptions()
+                    .setTimeout(15000)
+                    .setWaitUntil(WaitUntilState.COMMIT));
 
-            authCode = tempCurrentUrl.split("authCode=")[1].split("&")[0];
+            authCode = redirect.requireQueryParam("authCode", page.url());
 
             log.info("Auth Code: {}", authCode);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
         }
         return authCode;
     }
@@ -1,11 +1,9 @@
 package id.dana.widget;
 
-import com.microsoft.playwright.Browser;
-import com.microsoft.playwright.BrowserType;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
-import com.microsoft.playwright.Playwright;
 import id.dana.paymentgateway.CreateOrderTest;
+import id.dana.util.BrowserPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,11 +80,8 @@ public final class PaymentWidgetBrowser {
         String inputPin = ".txt-input-pin-field";
         String buttonPay = ".btn.btn-primary";
 
-        try (Playwright playwright = Playwright.create()) {
-            BrowserType.LaunchOptions opts = new BrowserType.LaunchOptions();
-            opts.setHeadless(true);
-            Browser browser = playwright.chromium().launch(opts);
-            Page page = browser.newPage();
+        try (BrowserPool.Session session = BrowserPool.open(BrowserPool.Engine.CHROMIUM)) {
+            Page page = session.page();
             page.navigate(redirectUrlPay);
 
             Locator.WaitForOptions waitForOptions = new Locator.WaitForOptions();
@@ -6,15 +6,13 @@ import id.dana.disbursement.v1.api.DisbursementApi;
 import id.dana.disbursement.v1.model.BankAccountInquiryRequest;
 import id.dana.disbursement.v1.model.BankAccountInquiryResponse;
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.DisbursementCustomerRetry;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -25,7 +23,8 @@ import java.util.UUID;
 import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +32,8 @@ import org.slf4j.LoggerFactory;
  * @author Kevin Veros Hamonangan <kevin.veros@dana.id>
  * @version $Id: BankAccountInquiryTest.java, v 0.1 2025‐08-13 10.06 kevin.veros Exp $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.DISBURSEMENT_CUSTOMERS)
 class BankAccountInquiryTest extends AbstractDisbursementTest {
 
   private static final Logger log = LoggerFactory.getLogger(BankAccountInquiryTest.class);
@@ -43,20 +44,10 @@ class BankAccountInquiryTest extends AbstractDisbursementTest {
   private DisbursementApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountValidDataAmount() throws Exception {
     String caseName = "InquiryBankAccountValidDataAmount";
@@ -82,13 +73,11 @@ class BankAccountInquiryTest extends AbstractDisbursementTest {
     TestUtil.assertResponse(jsonPathFile, titleCase, caseName, retryResult.result(), variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountInsufficientFund() throws IOException {
     assertBankAccountInquiryErrorWithFixtureBody("InquiryBankAccountInsufficientFund");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountUnauthorizedSignature() throws IOException {
     String caseName = "InquiryBankAccountUnauthorizedSignature";
@@ -107,7 +96,7 @@ class BankAccountInquiryTest extends AbstractDisbursementTest {
       customHeaders.put(
           DanaHeader.X_SIGNATURE,
           "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-      OkHttpClient client = new OkHttpClient.Builder()
+      OkHttpClient client = HttpClientFactory.newBuilder()
           .addInterceptor(new DanaAuth())
           .addInterceptor(new CustomHeaderInterceptor(customHeaders))
           .build();
@@ -133,25 +122,21 @@ class BankAccountInquiryTest extends AbstractDisbursementTest {
     }
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountInactiveAccount() throws IOException {
     assertBankAccountInquiryErrorWithFixtureBody("InquiryBankAccountInactiveAccount");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountInvalidMerchant() throws IOException {
     assertBankAccountInquiryErrorWithFixtureBody("InquiryBankAccountInvalidMerchant");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountInvalidCard() throws IOException {
     assertBankAccountInquiryErrorWithFixtureBody("InquiryBankAccountInvalidCard");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountInvalidFieldFormat() throws IOException {
     String caseName = "InquiryBankAccountInvalidFieldFormat";
@@ -170,7 +155,6 @@ class BankAccountInquiryTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testInquiryBankAccountMissingMandatoryField() throws IOException {
     assertBankAccountInquiryErrorWithFixtureBody("InquiryBankAccountMissingMandatoryField");
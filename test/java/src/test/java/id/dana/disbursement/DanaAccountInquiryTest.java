@@ -6,14 +6,12 @@ import id.dana.disbursement.v1.api.DisbursementApi;
 import id.dana.disbursement.v1.model.DanaAccountInquiryRequest;
 import id.dana.disbursement.v1.model.DanaAccountInquiryResponse;
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.DisbursementCustomerRetry;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -25,6 +23,8 @@ import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +32,8 @@ import org.slf4j.LoggerFactory;
  * @author Kevin Veros Hamonangan <kevin.veros@dana.id>
  * @version $Id: DanaAccountInquiryTest.java, v 0.1 2025‐08‐13 10.06 kevin.veros Exp $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.DISBURSEMENT_CUSTOMERS)
 class DanaAccountInquiryTest extends AbstractDisbursementTest {
 
   private static final Logger log = LoggerFactory.getLogger(DanaAccountInquiryTest.class);
@@ -42,17 +44,8 @@ class DanaAccountInquiryTest extends AbstractDisbursementTest {
   private DisbursementApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
   @Test
@@ -142,7 +135,7 @@ class DanaAccountInquiryTest extends AbstractDisbursementTest {
     customHeaders.put(
             DanaHeader.X_SIGNATURE,
             "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
             .addInterceptor(new DanaAuth())
             .addInterceptor(new CustomHeaderInterceptor(customHeaders))
             .build();
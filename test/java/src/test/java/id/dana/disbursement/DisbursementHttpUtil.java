@@ -1,9 +1,6 @@
 package id.dana.disbursement;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import id.dana.disbursement.v1.api.DisbursementApi;
 import id.dana.disbursement.v1.model.TransferToBankRequest;
@@ -16,11 +13,12 @@ import id.dana.disbursement.v1.model.DanaAccountInquiryRequest;
 import id.dana.disbursement.v1.model.DanaAccountInquiryResponse;
 import id.dana.interceptor.ReplaceRequestBodyInterceptor;
 import id.dana.invoker.auth.DanaAuth;
+import id.dana.util.FixtureRepository;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SnapJson;
 import id.dana.util.TestUtil;
-import java.io.File;
 import java.io.IOException;
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 
 /**
  * Raw JSON + body-replacement helpers so sandbox SDK amount/beneficiary validation does not
@@ -28,23 +26,13 @@ import okhttp3.OkHttpClient;
  */
 final class DisbursementHttpUtil {
 
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
 
   private DisbursementHttpUtil() {}
 
   static JsonNode getRawRequest(String jsonPathFile, String title, String caseName)
       throws IOException {
-    JsonNode requestNode =
-        OBJECT_MAPPER.readTree(new File(jsonPathFile)).path(title).path(caseName).path("request");
-    return TestUtil.replaceTemplateValues(requestNode);
-  }
-
-  static String compactJsonForSnap(JsonNode node) throws JsonProcessingException {
-    ObjectMapper sorted =
-        new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
-    Object tree = OBJECT_MAPPER.treeToValue(node, Object.class);
-    return sorted.writeValueAsString(tree);
+    return FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
   }
 
   /**
@@ -55,7 +43,7 @@ final class DisbursementHttpUtil {
       String jsonPathFile, String caseName, String partnerReferenceNo) throws IOException {
     JsonNode bodyNode = getRawRequest(jsonPathFile, "TransferToDana", caseName);
     ((ObjectNode) bodyNode).put("partnerReferenceNo", partnerReferenceNo);
-    String payload = compactJsonForSnap(bodyNode);
+    byte[] payload = SnapJson.canonicalBytes(bodyNode);
 
     TransferToDanaRequest shell =
         TestUtil.getRequest(
@@ -64,7 +52,7 @@ final class DisbursementHttpUtil {
 
     DisbursementApi api =
         new DisbursementApi(
-            new OkHttpClient.Builder()
+            HttpClientFactory.newBuilder()
                 .addInterceptor(new ReplaceRequestBodyInterceptor(payload, JSON))
                 .addInterceptor(new DanaAuth())
                 .build());
@@ -79,11 +67,12 @@ final class DisbursementHttpUtil {
       String jsonPathFile, String caseName, String partnerReferenceNo) throws IOException {
     JsonNode bodyNode = getRawRequest(jsonPathFile, "TransferToBank", caseName);
     ((ObjectNode) bodyNode).put("partnerReferenceNo", partnerReferenceNo);
-    return transferToBankWithPayload(jsonPathFile, compactJsonForSnap(bodyNode), partnerReferenceNo);
+    return transferToBankWithPayload(
+        jsonPathFile, SnapJson.canonicalBytes(bodyNode), partnerReferenceNo);
   }
 
   static TransferToBankResponse transferToBankWithPayload(
-      String jsonPathFile, String payload, String partnerReferenceNo) throws IOException {
+      String jsonPathFile, byte[] payload, String partnerReferenceNo) throws IOException {
     TransferToBankRequest shell =
         TestUtil.getRequest(
             jsonPathFile,
@@ -94,7 +83,7 @@ final class DisbursementHttpUtil {
 
     DisbursementApi api =
         new DisbursementApi(
-            new OkHttpClient.Builder()
+            HttpClientFactory.newBuilder()
                 .addInterceptor(new ReplaceRequestBodyInterceptor(payload, JSON))
                 .addInterceptor(new DanaAuth())
                 .build());
@@ -105,7 +94,7 @@ final class DisbursementHttpUtil {
       String jsonPathFile, String caseName, String partnerReferenceNo) throws IOException {
     JsonNode bodyNode = getRawRequest(jsonPathFile, "BankAccountInquiry", caseName);
     ((ObjectNode) bodyNode).put("partnerReferenceNo", partnerReferenceNo);
-    String payload = compactJsonForSnap(bodyNode);
+    byte[] payload = SnapJson.canonicalBytes(bodyNode);
 
     BankAccountInquiryRequest shell =
         TestUtil.getRequest(
@@ -117,7 +106,7 @@ final class DisbursementHttpUtil {
 
     DisbursementApi api =
         new DisbursementApi(
-            new OkHttpClient.Builder()
+            HttpClientFactory.newBuilder()
                 .addInterceptor(new ReplaceRequestBodyInterceptor(payload, JSON))
                 .addInterceptor(new DanaAuth())
                 .build());
@@ -128,7 +117,7 @@ final class DisbursementHttpUtil {
       String jsonPathFile, String caseName, String partnerReferenceNo) throws IOException {
     JsonNode bodyNode = getRawRequest(jsonPathFile, "DanaAccountInquiry", caseName);
     ((ObjectNode) bodyNode).put("partnerReferenceNo", partnerReferenceNo);
-    String payload = compactJsonForSnap(bodyNode);
+    byte[] payload = SnapJson.canonicalBytes(bodyNode);
 
     DanaAccountInquiryRequest shell =
         TestUtil.getRequest(
@@ -140,7 +129,7 @@ final class DisbursementHttpUtil {
 
     DisbursementApi api =
         new DisbursementApi(
-            new OkHttpClient.Builder()
+            HttpClientFactory.newBuilder()
                 .addInterceptor(new ReplaceRequestBodyInterceptor(payload, JSON))
                 .addInterceptor(new DanaAuth())
                 .build());
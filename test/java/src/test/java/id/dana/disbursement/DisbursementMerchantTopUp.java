@@ -2,15 +2,13 @@ package id.dana.disbursement;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.merchantmanagement.v1.api.MerchantManagementApi;
 import id.dana.merchantmanagement.v1.model.QueryAssetCardListResponse;
 import id.dana.merchantmanagement.v1.model.QueryMerchantInfoResponse;
 import id.dana.util.BNIHashUtil;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.MerchantManagementTestHelper;
 import java.io.IOException;
 import java.time.ZoneId;
@@ -63,7 +61,7 @@ public final class DisbursementMerchantTopUp {
         return;
       }
       try {
-        initDanaConfig();
+        DanaBootstrap.init();
         long depositBalance = queryMerchantDepositTotalAmount();
         if (depositBalance >= MERCHANT_DEPOSIT_TOP_UP_THRESHOLD) {
           log.info(
@@ -89,19 +87,8 @@ public final class DisbursementMerchantTopUp {
     }
   }
 
-  private static void initDanaConfig() {
-    DanaConfig.Builder builder = new DanaConfig.Builder();
-    builder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .clientSecret(ConfigUtil.getConfig(EnvKey.CLIENT_SECRET, ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-    DanaConfig.getInstance(builder);
-  }
-
   private static MerchantManagementApi merchantManagementApi() {
-    return Dana.getInstance().getMerchantManagementApi();
+    return DanaBootstrap.merchantManagementApi();
   }
 
   private static long queryMerchantDepositTotalAmount() throws Exception {
@@ -215,7 +202,7 @@ public final class DisbursementMerchantTopUp {
         .put("client_id", clientId)
         .put("data", data);
 
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
         .connectTimeout(30, TimeUnit.SECONDS)
         .readTimeout(30, TimeUnit.SECONDS)
         .build();
@@ -6,11 +6,8 @@ import id.dana.disbursement.v1.api.DisbursementApi;
 import id.dana.disbursement.v1.model.TransferToBankInquiryStatusRequest;
 import id.dana.disbursement.v1.model.TransferToBankInquiryStatusResponse;
 import id.dana.disbursement.v1.model.TransferToBankRequest;
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +15,8 @@ import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +25,8 @@ import org.slf4j.LoggerFactory;
  * @version $Id: TransferToBankInquiryStatusTest.java, v 0.1 2025‐08‐13 10.06 kevin.veros Exp
  * $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.MERCHANT_DEPOSIT)
 class TransferToBankInquiryStatusTest {
 
   private static final Logger log = LoggerFactory.getLogger(
@@ -38,17 +39,8 @@ class TransferToBankInquiryStatusTest {
   private DisbursementApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
   @Test
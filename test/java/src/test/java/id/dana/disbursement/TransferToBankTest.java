@@ -8,14 +8,13 @@ import id.dana.disbursement.v1.model.TransferToBankRequest;
 import id.dana.disbursement.v1.model.TransferToBankResponse;
 import id.dana.disbursement.v1.model.TransferToDanaResponse;
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
+import id.dana.util.SnapJson;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -30,7 +29,8 @@ import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +38,8 @@ import org.slf4j.LoggerFactory;
  * @author Kevin Veros Hamonangan <kevin.veros@dana.id>
  * @version $Id: TransferToBankTest.java, v 0.1 2025‐08‐13 10.06 kevin.veros Exp $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.MERCHANT_DEPOSIT)
 class TransferToBankTest extends AbstractDisbursementTest {
 
   private static final Logger log = LoggerFactory.getLogger(TransferToBankTest.class);
@@ -48,20 +50,10 @@ class TransferToBankTest extends AbstractDisbursementTest {
   private DisbursementApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankValidAccount() throws IOException {
     String caseName = "DisbursementBankValidAccount";
@@ -81,7 +73,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankInsufficientFund() throws IOException {
     String caseName = "DisbursementBankInsufficientFund";
@@ -96,7 +87,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankValidAccountInProgress() throws IOException {
     String caseName = "DisbursementBankValidAccountInProgress";
@@ -116,13 +106,11 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankInactiveAccount() throws IOException {
     assertTransferToBankErrorWithFixtureBody("DisbursementBankInactiveAccount");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankUnauthorizedSignature() throws IOException {
     String caseName = "DisbursementBankUnauthorizedSignature";
@@ -141,7 +129,7 @@ class TransferToBankTest extends AbstractDisbursementTest {
       customHeaders.put(
           DanaHeader.X_SIGNATURE,
           "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-      OkHttpClient client = new OkHttpClient.Builder()
+      OkHttpClient client = HttpClientFactory.newBuilder()
           .addInterceptor(new DanaAuth())
           .addInterceptor(new CustomHeaderInterceptor(customHeaders))
           .build();
@@ -166,7 +154,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     }
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankInvalidMandatoryFieldFormat() throws IOException {
     Map<String, String> customHeaders = new HashMap<>();
@@ -186,7 +173,7 @@ class TransferToBankTest extends AbstractDisbursementTest {
     customHeaders.put(
             DanaHeader.X_SIGNATURE,
             "");
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
             .addInterceptor(new DanaAuth())
             .addInterceptor(new CustomHeaderInterceptor(customHeaders))
             .build();
@@ -197,7 +184,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankMissingMandatoryField() throws IOException {
     String caseName = "DisbursementBankMissingMandatoryField";
@@ -212,7 +198,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankInvalidFieldFormat() throws IOException {
     String caseName = "DisbursementBankInvalidFieldFormat";
@@ -232,7 +217,6 @@ class TransferToBankTest extends AbstractDisbursementTest {
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankInconsistentRequest() throws IOException {
     String caseName = "DisbursementBankInconsistentRequest";
@@ -248,25 +232,22 @@ class TransferToBankTest extends AbstractDisbursementTest {
         (ObjectNode) DisbursementHttpUtil.getRawRequest(jsonPathFile, titleCase, caseName);
     bodyNode.put("partnerReferenceNo", partnerReferenceNo);
     ((ObjectNode) bodyNode.get("amount")).put("value", "2000.00");
-    String payload = DisbursementHttpUtil.compactJsonForSnap(bodyNode);
+    byte[] payload = SnapJson.canonicalBytes(bodyNode);
     TransferToBankResponse response =
         DisbursementHttpUtil.transferToBankWithPayload(jsonPathFile, payload, partnerReferenceNo);
     TestUtil.assertFailResponse(jsonPathFile, titleCase, caseName, response, variableDict);
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankSuspectedFraud() throws IOException {
     assertTransferToBankErrorWithFixtureBody("DisbursementBankSuspectedFraud");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankGeneralError() throws IOException {
     assertTransferToBankErrorWithFixtureBody("DisbursementBankGeneralError");
   }
 
-  @Test
   @RetryTestUtil.Retry(value = 3, waitMs = 2000)
   void testDisbursementBankUnknownError() throws IOException {
     assertTransferToBankErrorWithFixtureBody("DisbursementBankUnknownError");
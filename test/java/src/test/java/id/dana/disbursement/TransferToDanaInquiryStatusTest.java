@@ -5,14 +5,12 @@ import static org.junit.jupiter.api.Assertions.fail;
 import id.dana.disbursement.v1.api.DisbursementApi;
 import id.dana.disbursement.v1.model.*;
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.DisbursementCustomerRetry;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -25,6 +23,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +33,9 @@ import org.slf4j.LoggerFactory;
  * @version $Id: TransferToDanaInquiryStatusTest.java, v 0.1 2025‐08‐13 10.06 kevin.veros Exp
  * $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.MERCHANT_DEPOSIT)
+@ResourceLock(SandboxResources.DISBURSEMENT_CUSTOMERS)
 class TransferToDanaInquiryStatusTest extends AbstractDisbursementTest {
 
   private static final Logger log = LoggerFactory.getLogger(
@@ -46,17 +49,8 @@ class TransferToDanaInquiryStatusTest extends AbstractDisbursementTest {
   private String partnerReferencePaid, partnerReferenceFailed;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
   private String prepareTransferSuccessPaid() throws Exception {
@@ -174,7 +168,7 @@ class TransferToDanaInquiryStatusTest extends AbstractDisbursementTest {
     customHeaders.put(
             DanaHeader.X_TIMESTAMP,
             "");
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
             .addInterceptor(new DanaAuth())
             .addInterceptor(new CustomHeaderInterceptor(customHeaders))
             .build();
@@ -202,7 +196,7 @@ class TransferToDanaInquiryStatusTest extends AbstractDisbursementTest {
     customHeaders.put(
             DanaHeader.X_SIGNATURE,
             "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
             .addInterceptor(new DanaAuth())
             .addInterceptor(new CustomHeaderInterceptor(customHeaders))
             .build();
@@ -7,14 +7,12 @@ import id.dana.disbursement.v1.model.Money;
 import id.dana.disbursement.v1.model.TransferToDanaRequest;
 import id.dana.disbursement.v1.model.TransferToDanaResponse;
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.DisbursementCustomerRetry;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -31,6 +29,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +38,9 @@ import org.slf4j.LoggerFactory;
  * @author Kevin Veros Hamonangan <kevin.veros@dana.id>
  * @version $Id: TransferToDanaTest.java, v 0.1 2025‐08‐13 10.06 kevin.veros Exp $$
  */
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.MERCHANT_DEPOSIT)
+@ResourceLock(SandboxResources.DISBURSEMENT_CUSTOMERS)
 class TransferToDanaTest extends AbstractDisbursementTest {
 
   private static final Logger log = LoggerFactory.getLogger(TransferToDanaTest.class);
@@ -48,17 +51,8 @@ class TransferToDanaTest extends AbstractDisbursementTest {
   private DisbursementApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getDisbursementApi();
+  void setUp(DisbursementApi disbursementApi) {
+    api = disbursementApi;
   }
 
   @Test
@@ -233,7 +227,7 @@ class TransferToDanaTest extends AbstractDisbursementTest {
     customHeaders.put(
             DanaHeader.X_SIGNATURE,
             "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
             .addInterceptor(new DanaAuth())
             .addInterceptor(new CustomHeaderInterceptor(customHeaders))
             .build();
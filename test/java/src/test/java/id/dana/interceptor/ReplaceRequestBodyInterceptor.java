@@ -1,6 +1,7 @@
 package id.dana.interceptor;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.Request;
@@ -11,22 +12,31 @@ import okhttp3.Response;
  * Replaces the outgoing request body before {@link id.dana.invoker.auth.DanaAuth} runs, so SNAP
  * signs the same bytes sent on the wire. Used when the SDK model cannot represent an intentionally
  * invalid payload but headers must remain normal (contrast with {@link CustomHeaderInterceptor}).
+ *
+ * <p>The payload is encoded and wrapped in a {@link RequestBody} once, so OkHttp retries and test
+ * reruns through the same client reuse it instead of re-encoding on every {@link #intercept}.
  */
 public class ReplaceRequestBodyInterceptor implements Interceptor {
 
-  private final String body;
-  private final MediaType mediaType;
+  private final RequestBody requestBody;
 
   public ReplaceRequestBodyInterceptor(String body, MediaType mediaType) {
-    this.body = body;
-    this.mediaType = mediaType;
+    this(body.getBytes(StandardCharsets.UTF_8), mediaType);
+  }
+
+  /** Takes the payload as already-encoded UTF-8, e.g. {@link id.dana.util.SnapJson#canonicalBytes}. */
+  public ReplaceRequestBodyInterceptor(byte[] body, MediaType mediaType) {
+    this.requestBody = RequestBody.create(mediaType, body);
   }
 
   @Override
   public Response intercept(Chain chain) throws IOException {
     Request original = chain.request();
+    if (original.body() == requestBody) {
+      return chain.proceed(original);
+    }
     Request.Builder b = original.newBuilder();
-    b.method(original.method(), RequestBody.create(mediaType, body));
+    b.method(original.method(), requestBody);
     return chain.proceed(b.build());
   }
 }
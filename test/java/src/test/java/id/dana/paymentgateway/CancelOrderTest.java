@@ -3,12 +3,8 @@ package id.dana.paymentgateway;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.*;
 
@@ -16,12 +12,22 @@ import java.io.IOException;
 import java.util.*;
 
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.OrderPool;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "createOrder")
 class CancelOrderTest {
 
     private static String jsonPathFile = CancelOrderTest.class.getResource("/request/components/PaymentGateway.json")
@@ -30,25 +36,15 @@ class CancelOrderTest {
     private static String userPin = "181818";
     private static String userPhone = "083811223355";
     private final String titleCase = "CancelOrder";
-    private static PaymentGatewayApi api;
+    private static PaymentGatewayApi api = DanaBootstrap.paymentGatewayApi();
     private static String partnerReferenceNoInit,partnerReferenceNoRefunded;
 
     @BeforeAll
-    static void setUp() throws IOException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
+    static void setUp(PaymentGatewayApi paymentGatewayApi) throws IOException {
+        api = paymentGatewayApi;
 
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        api = Dana.getInstance().getPaymentGatewayApi();
-
-//        Create order
-        List<String> dataOrder= createOrder();
-        partnerReferenceNoInit = dataOrder.get(0);
+//        Order prepared by OrderPool
+        partnerReferenceNoInit = OrderPool.take(CancelOrderTest.class, OrderPool.State.INIT);
     }
 
     @Test
@@ -114,7 +110,7 @@ class CancelOrderTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -197,7 +193,7 @@ class CancelOrderTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -221,7 +217,6 @@ class CancelOrderTest {
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, null);
     }
 
-    @Test
     @RetryTestUtil.Retry
     @DisplayName("Cancel Order with Order Has Been Refunded")
     @DisabledIfEnvironmentVariable(named = "CI", matches = ".*")
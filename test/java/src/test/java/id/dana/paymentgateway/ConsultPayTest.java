@@ -1,12 +1,8 @@
 package id.dana.paymentgateway;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.merchantmanagement.v1.api.MerchantManagementApi;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.ConsultPayRequest;
@@ -14,11 +10,14 @@ import id.dana.paymentgateway.v1.model.ConsultPayResponse;
 import id.dana.paymentgateway.v1.model.RefundOrderRequest;
 import id.dana.paymentgateway.v1.model.RefundOrderResponse;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.RetryTestUtil;
 import id.dana.util.TestUtil;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+@ExtendWith(DanaExtension.class)
 public class ConsultPayTest {
     private static final Logger log = LoggerFactory.getLogger(CreateOrderTest.class);
 
@@ -37,21 +37,11 @@ public class ConsultPayTest {
     private static PaymentGatewayApi api;
     private static final String merchantId = ConfigUtil.getConfig("MERCHANT_ID", "216620010016033632482");
     @BeforeAll
-    static void setUp() {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        api = Dana.getInstance().getPaymentGatewayApi();
+    static void setUp(PaymentGatewayApi paymentGatewayApi) {
+        api = paymentGatewayApi;
 
     }
 
-    @Test
     @RetryTestUtil.Retry
     void testConsultPayBalancedSuccess() throws IOException {
         String caseName = "ConsultPayBalancedSuccess";
@@ -86,7 +76,7 @@ public class ConsultPayTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
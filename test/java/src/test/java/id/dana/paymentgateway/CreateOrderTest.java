@@ -5,12 +5,8 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
 import id.dana.interceptor.ReplaceRequestBodyInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.merchantmanagement.v1.api.MerchantManagementApi;
 import id.dana.merchantmanagement.v1.model.CreateDivisionRequestExtInfo;
 import id.dana.merchantmanagement.v1.model.CreateShopRequest;
@@ -19,7 +15,10 @@ import id.dana.invoker.model.exception.DanaException;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.*;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.RetryTestUtil.Retry;
+import id.dana.util.SnapJson;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -40,9 +39,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ExtendWith(DanaExtension.class)
 public class CreateOrderTest {
 
   private static final Logger log = LoggerFactory.getLogger(CreateOrderTest.class);
@@ -58,20 +59,10 @@ public class CreateOrderTest {
   private static final String externalStoreId = ConfigUtil.getConfig("EXTERNAL_SHOP_ID", "216620010016033632482");
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-
-    api = Dana.getInstance().getPaymentGatewayApi();
+  void setUp(PaymentGatewayApi paymentGatewayApi) {
+    api = paymentGatewayApi;
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testCreateOrderRedirect() {
     String caseName = "CreateOrderRedirect";
@@ -96,7 +87,6 @@ public class CreateOrderTest {
     }
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testCreateOrderApi() {
     String caseName = "CreateOrderApi";
@@ -121,7 +111,6 @@ public class CreateOrderTest {
     }
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testCreateOrderNetworkPayPgOtherVaBank() {
     String caseName = "CreateOrderNetworkPayPgOtherVaBank";
@@ -146,7 +135,6 @@ public class CreateOrderTest {
     }
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testCreateOrderNetworkPayPgQris() {
     String caseName = "CreateOrderNetworkPayPgQris";
@@ -171,7 +159,6 @@ public class CreateOrderTest {
     }
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testCreateOrderNetworkPayPgOtherWallet() {
     try {
@@ -224,14 +211,14 @@ public class CreateOrderTest {
     ((ObjectNode) bodyNode).remove("@type");
     ((ObjectNode) bodyNode).remove("subMerchantId");
 
-    String invalidPayload = PaymentPGUtil.compactJsonForSnap(bodyNode);
+    byte[] invalidPayload = SnapJson.canonicalBytes(bodyNode);
 
     CreateOrderByApiRequest requestData = PaymentPGUtil.getCreateOrderApiRequest(jsonPathFile, titleCase, "CreateOrderApi");
     requestData.setPartnerReferenceNo(partnerReferenceNo);
     requestData.setMerchantId(merchantId);
     requestData.setValidUpTo(PaymentPGUtil.generateDateWithOffsetSeconds(600));
 
-    OkHttpClient client = new OkHttpClient.Builder()
+    OkHttpClient client = HttpClientFactory.newBuilder()
         .addInterceptor(new ReplaceRequestBodyInterceptor(invalidPayload, MediaType.parse("application/json; charset=utf-8")))
         .addInterceptor(new DanaAuth())
         .build();
@@ -289,7 +276,8 @@ public class CreateOrderTest {
       fail("Fail to call first API: " + e.getMessage());
     }
 
-    TestUtil.delay(2000);
+    // The duplicate check needs the first order to be registered
+    OrderPGUtil.awaitPaymentStatus(partnerReferenceNo, "01");
 
     try {
       requestData.getAmount().setValue("10000.00");
@@ -339,7 +327,7 @@ public class CreateOrderTest {
     try {
       Map<String, String> customHeaders = new HashMap<>();
       customHeaders.put(DanaHeader.X_TIMESTAMP, "");
-      OkHttpClient client = new OkHttpClient.Builder()
+      OkHttpClient client = HttpClientFactory.newBuilder()
           .addInterceptor(new DanaAuth())
           .addInterceptor(new CustomHeaderInterceptor(customHeaders))
           .build();
@@ -383,7 +371,7 @@ public class CreateOrderTest {
     try {
       Map<String, String> customHeaders = new HashMap<>();
       customHeaders.put(DanaHeader.X_SIGNATURE, "dummySignature");
-      OkHttpClient client = new OkHttpClient.Builder()
+      OkHttpClient client = HttpClientFactory.newBuilder()
           .addInterceptor(new DanaAuth())
           .addInterceptor(new CustomHeaderInterceptor(customHeaders))
           .build();
@@ -2,10 +2,6 @@ package id.dana.paymentgateway;
 
 import static org.junit.jupiter.api.Assertions.fail;
 
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.PaymentPGUtil;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.CreateOrderByApiRequest;
@@ -16,6 +12,7 @@ import id.dana.paymentgateway.v1.model.PayOptionDetail.PayMethodEnum;
 import id.dana.paymentgateway.v1.model.PayOptionDetail.PayOptionEnum;
 import id.dana.paymentgateway.v1.model.UrlParam;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.RetryTestUtil.Retry;
 import id.dana.util.TestUtil;
 
@@ -25,10 +22,11 @@ import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ExtendWith(DanaExtension.class)
 public class FinishNotifyTest {
 
   private static final Logger log = LoggerFactory.getLogger(FinishNotifyTest.class);
@@ -47,16 +45,8 @@ public class FinishNotifyTest {
   private PaymentGatewayApi api;
 
   @BeforeEach
-  void setUp() {
-    DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-    danaConfigBuilder
-        .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-        .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-        .origin(ConfigUtil.getConfig("ORIGIN", ""))
-        .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-    DanaConfig.getInstance(danaConfigBuilder);
-    api = Dana.getInstance().getPaymentGatewayApi();
+  void setUp(PaymentGatewayApi paymentGatewayApi) {
+    api = paymentGatewayApi;
   }
 
   private void patchCreateOrderAPIForFinishNotify(CreateOrderByApiRequest requestData, String amount) {
@@ -106,19 +96,16 @@ public class FinishNotifyTest {
     }
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testTransactionSuccessNotify() {
     runFinishNotifyTest("11011.00", "", true);
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testInternalServerErrorNotify() {
     runFinishNotifyTest("11012.00", "", true);
   }
 
-  @Test
   @Retry(value = 3, waitMs = 2000)
   void testExpiredNotify() {
     String validUpTo = PaymentPGUtil.generateDateWithOffsetSeconds(
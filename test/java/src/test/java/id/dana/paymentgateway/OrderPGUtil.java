@@ -1,14 +1,14 @@
 package id.dana.paymentgateway;
 
 import com.microsoft.playwright.*;
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.*;
+import id.dana.util.Await;
+import id.dana.util.BrowserPool;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
 import id.dana.util.TestUtil;
+import id.dana.util.local.LocalSandbox;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.WidgetPaymentRequest;
 import id.dana.widget.v1.model.WidgetPaymentResponse;
@@ -39,10 +39,14 @@ public class OrderPGUtil {
         String inputPin = "//*[contains(@class,\"input-pin\")]//input";
         String buttonPay = "//*[contains(@class,\"btn-pay\")]";
 
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = playwright.webkit().launch();
-            playwright.firefox().launch(new BrowserType.LaunchOptions());
-            Page page = browser.newPage();
+        if (LocalSandbox.isEnabled()) {
+            LocalSandbox.pay(dataOrder.get(1));
+            awaitPaymentStatus(dataOrder.get(0), "00");
+            return dataOrder.get(0);
+        }
+
+        try (BrowserPool.Session session = BrowserPool.open()) {
+            Page page = session.page();
 //            Redirect to page payment
             page.navigate(dataOrder.get(1));
 
@@ -66,10 +70,8 @@ public class OrderPGUtil {
 //            Click button pay
             page.locator(buttonPay).click();
 
-//            Wait transaction success
-            Thread.sleep(10000);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+//            Wait transaction success, keeping the page open until the order is paid
+            awaitPaymentStatus(dataOrder.get(0), "00");
         }
         return dataOrder.get(0);
     }
@@ -77,16 +79,7 @@ public class OrderPGUtil {
     public static List<String> createOrder(String orderOrigin) throws IOException {
         List<String> dataOrder = new ArrayList<>();
 
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        api = Dana.getInstance().getPaymentGatewayApi();
+        api = DanaBootstrap.paymentGatewayApi();
 
         CreateOrderByRedirectRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase,
                 orderOrigin, CreateOrderByRedirectRequest.class);
@@ -110,6 +103,25 @@ public class OrderPGUtil {
         return dataOrder;
     }
 
+    /**
+     * Polls {@code queryPayment} until the order reaches {@code latestTransactionStatus} ("00" paid,
+     * "01" created, "05" cancelled) and returns the last response, matching or not.
+     */
+    public static QueryPaymentResponse awaitPaymentStatus(String partnerReferenceNo, String latestTransactionStatus) {
+        QueryPaymentRequest requestData = TestUtil.getRequest(jsonPathFile, "QueryPayment", "QueryPaymentPaidOrder",
+                QueryPaymentRequest.class);
+        requestData.setOriginalPartnerReferenceNo(partnerReferenceNo);
+        requestData.setMerchantId(merchantId);
+
+        PaymentGatewayApi paymentGatewayApi = DanaBootstrap.paymentGatewayApi();
+        return Await.poll("order " + partnerReferenceNo + " status " + latestTransactionStatus,
+                        () -> paymentGatewayApi.queryPayment(requestData))
+                .until(response -> latestTransactionStatus.equals(
+                        String.valueOf(response.getLatestTransactionStatus())))
+                .ignoreExceptions()
+                .awaitOrLast();
+    }
+
     public static String cancelOrder(String orderOrigin) throws IOException {
         List<String> partnerReferenceNo = createOrder(orderOrigin);
 
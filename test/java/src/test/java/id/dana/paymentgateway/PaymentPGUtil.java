@@ -1,31 +1,29 @@
 package id.dana.paymentgateway;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import id.dana.invoker.JSON;
 import id.dana.paymentgateway.v1.model.*;
 import id.dana.util.BrowserTestSupport;
+import id.dana.util.EmptyStringNullifier;
+import id.dana.util.FixtureRepository;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SnapJson;
 import id.dana.util.TestUtil;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class PaymentPGUtil {
     private static final Logger log = LoggerFactory.getLogger(CreateOrderTest.class);
@@ -53,72 +51,18 @@ public class PaymentPGUtil {
     /**
      * Recursively sets any empty string ("") to null in the object and nested objects/lists.
      * Generic: no field-specific logic, so JSON-backed requests match API expectation (null vs "").
+     * Per-class field metadata is cached, see {@link EmptyStringNullifier}.
      */
     public static void emptyStringToNull(Object obj) {
-        if (obj == null) return;
-        Class<?> c = obj.getClass();
-        if (c.isEnum() || c.isPrimitive() || c == String.class) return;
-        if (c.getPackage() != null && (c.getPackage().getName().startsWith("java.") || c.getPackage().getName().startsWith("javax."))) return;
-
-        if (obj instanceof List) {
-            for (Object item : (List<?>) obj) emptyStringToNull(item);
-            return;
-        }
-        if (obj instanceof Map) return;
-
-        for (Field f : getAllFields(c)) {
-            if (Modifier.isStatic(f.getModifiers())) continue;
-            f.setAccessible(true);
-            try {
-                Object val = f.get(obj);
-                if (f.getType() == String.class && "".equals(val)) {
-                    f.set(obj, null);
-                } else if (val != null && f.getType().isEnum()) {
-                    // OpenAPI enums often have getValue(); empty string should become null
-                    String enumStr = null;
-                    try {
-                        java.lang.reflect.Method getValue = val.getClass().getMethod("getValue");
-                        Object v = getValue.invoke(val);
-                        enumStr = v == null ? null : v.toString();
-                    } catch (NoSuchMethodException e) {
-                        enumStr = ((Enum<?>) val).name();
-                    } catch (Exception e) {
-                        enumStr = ((Enum<?>) val).name();
-                    }
-                    if (enumStr != null && enumStr.isEmpty()) {
-                        f.set(obj, null);
-                    }
-                } else if (val != null && !val.getClass().isEnum() && !isSimpleType(val.getClass())) {
-                    emptyStringToNull(val);
-                } else if (val instanceof List) {
-                    for (Object item : (List<?>) val) emptyStringToNull(item);
-                }
-            } catch (IllegalAccessException ignored) { }
-        }
-    }
-
-    private static List<Field> getAllFields(Class<?> c) {
-        List<Field> list = new ArrayList<>();
-        while (c != null && c != Object.class) {
-            for (Field f : c.getDeclaredFields()) list.add(f);
-            c = c.getSuperclass();
-        }
-        return list;
-    }
-
-    private static boolean isSimpleType(Class<?> c) {
-        return c.isPrimitive() || c == String.class || Number.class.isAssignableFrom(c)
-                || c == Boolean.class || c == Character.class || c == java.util.Date.class
-                || c.getPackage() != null && (c.getPackage().getName().startsWith("java.") || c.getPackage().getName().startsWith("javax."));
+        EmptyStringNullifier.nullify(obj);
     }
 
     private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
 
-    /** Load CreateOrder API request: use TestUtil.replaceTemplateValues, patch validUpTo before deserialize, set additionalInfo if null. Payment Gateway only; TestUtil.getRequest would fail on validUpTo. */
+    /** Load CreateOrder API request: resolve ${VAR} templates, patch validUpTo before deserialize, set additionalInfo if null. Payment Gateway only; TestUtil.getRequest would fail on validUpTo. */
     public static CreateOrderByApiRequest getCreateOrderApiRequest(String jsonPathFile, String title, String caseName) {
         try {
-            JsonNode requestNode = objectMapper.readTree(new File(jsonPathFile)).path(title).path(caseName).path("request");
-            JsonNode replacedNode = TestUtil.replaceTemplateValues(requestNode);
+            JsonNode replacedNode = FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
             if (replacedNode.isObject()) {
                 ObjectNode obj = (ObjectNode) replacedNode;
                 obj.put("validUpTo", generateDateWithOffsetSeconds(600));
@@ -134,11 +78,10 @@ public class PaymentPGUtil {
         }
     }
 
-    /** Load CreateOrder Redirect request: use TestUtil.replaceTemplateValues, patch validUpTo before deserialize, set additionalInfo if null. Payment Gateway only. */
+    /** Load CreateOrder Redirect request: resolve ${VAR} templates, patch validUpTo before deserialize, set additionalInfo if null. Payment Gateway only. */
     public static CreateOrderByRedirectRequest getCreateOrderRedirectRequest(String jsonPathFile, String title, String caseName) {
         try {
-            JsonNode requestNode = objectMapper.readTree(new File(jsonPathFile)).path(title).path(caseName).path("request");
-            JsonNode replacedNode = TestUtil.replaceTemplateValues(requestNode);
+            JsonNode replacedNode = FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
             if (replacedNode.isObject()) {
                 ObjectNode obj = (ObjectNode) replacedNode;
                 obj.put("validUpTo", generateDateWithOffsetSeconds(600));
@@ -182,19 +125,16 @@ public class PaymentPGUtil {
      */
     public static JsonNode getCreateOrderRawRequest(String jsonPathFile, String title, String caseName)
             throws IOException {
-        JsonNode requestNode = objectMapper.readTree(new File(jsonPathFile)).path(title).path(caseName).path("request");
         // Same as Python get_request for this case: template replace only (no validUpTo refresh).
-        return TestUtil.replaceTemplateValues(requestNode);
+        return FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
     }
 
     /**
      * Canonical JSON string for SNAP body hash (sorted keys at each object), aligned with Go/Python direct calls.
+     * Prefer {@link SnapJson#canonicalBytes} when the result goes straight onto the wire.
      */
-    public static String compactJsonForSnap(JsonNode node) throws JsonProcessingException {
-        ObjectMapper sorted = new ObjectMapper()
-                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
-        Object tree = objectMapper.treeToValue(node, Object.class);
-        return sorted.writeValueAsString(tree);
+    public static String compactJsonForSnap(JsonNode node) {
+        return SnapJson.canonical(node);
     }
 
     public static String paymentCodeFromCreateOrderResponse(CreateOrderResponse response) {
@@ -213,26 +153,23 @@ public class PaymentPGUtil {
                 TRANSFER_VA_PAYMENT_ENDPOINT,
                 virtualAccountNo);
 
-        URL url = new URL(SANDBOX_TOOLS_EXECUTE_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setDoOutput(true);
-        conn.setConnectTimeout(30000);
-        conn.setReadTimeout(30000);
-        conn.setRequestProperty("accept", "application/json");
-        conn.setRequestProperty("accept-language", "en,id-ID;q=0.9,id;q=0.8,en-US;q=0.7");
-        conn.setRequestProperty("content-type", "application/json");
-        conn.setRequestProperty("origin", "https://dashboard.dana.id");
-        conn.setRequestProperty("referer", "https://dashboard.dana.id/");
-
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(payload.getBytes(StandardCharsets.UTF_8));
-        }
-
-        int responseCode = conn.getResponseCode();
-        if (responseCode < 200 || responseCode >= 300) {
-            throw new IOException("sandbox VA payment failed: HTTP " + responseCode);
+        OkHttpClient client = HttpClientFactory.newBuilder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build();
+        Request request = new Request.Builder()
+                .url(SANDBOX_TOOLS_EXECUTE_URL)
+                .header("accept", "application/json")
+                .header("accept-language", "en,id-ID;q=0.9,id;q=0.8,en-US;q=0.7")
+                .header("origin", "https://dashboard.dana.id")
+                .header("referer", "https://dashboard.dana.id/")
+                .post(RequestBody.create(MediaType.parse("application/json"), payload))
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("sandbox VA payment failed: HTTP " + response.code());
+            }
         }
-        conn.disconnect();
     }
 }
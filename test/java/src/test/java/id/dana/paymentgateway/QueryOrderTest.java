@@ -1,22 +1,26 @@
 package id.dana.paymentgateway;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.invoker.model.exception.DanaException;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.*;
+import id.dana.util.Await;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.OrderPool;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,6 +31,11 @@ import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "createOrder")
+@OrderPool.Provision(state = OrderPool.State.CANCELLED, recipe = "cancelOrder")
+@OrderPool.Provision(state = OrderPool.State.PAID, recipe = "paidOrder", takenBy = "testQueryPaymentPaidOrder")
 class QueryOrderTest {
     private static final Logger log = LoggerFactory.getLogger(QueryOrderTest.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
@@ -37,26 +46,16 @@ class QueryOrderTest {
     private static String userPin = "181818";
     private static String userPhone = "083811223355";
     private static final String merchantId = ConfigUtil.getConfig("MERCHANT_ID", "216620010016033632482");
-    private static PaymentGatewayApi api;
+    private static PaymentGatewayApi api = DanaBootstrap.paymentGatewayApi();
     private static String partnerReferenceNoInit,partnerReferenceNoPaid,partnerReferenceNoCancel;
 
     @BeforeAll
-    static void setUpBeforeAll() throws IOException, InterruptedException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
+    static void setUpBeforeAll(PaymentGatewayApi paymentGatewayApi) throws IOException, InterruptedException {
+        api = paymentGatewayApi;
 
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        api = Dana.getInstance().getPaymentGatewayApi();
-
-//        Create order
-        List<String> dataOrder = createOrder();
-        partnerReferenceNoInit = dataOrder.get(0);
-        partnerReferenceNoCancel = cancelOrder();
+//        Orders prepared by OrderPool
+        partnerReferenceNoInit = OrderPool.take(QueryOrderTest.class, OrderPool.State.INIT);
+        partnerReferenceNoCancel = OrderPool.take(QueryOrderTest.class, OrderPool.State.CANCELLED);
     }
 
     @Test
@@ -77,12 +76,9 @@ class QueryOrderTest {
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, variableDict);
     }
 
-    @Test
     @RetryTestUtil.Retry
     void testQueryPaymentPaidOrder() throws InterruptedException, IOException {
-        partnerReferenceNoPaid = payOrder(
-                userPhone,
-                userPin);
+        partnerReferenceNoPaid = OrderPool.take(QueryOrderTest.class, OrderPool.State.PAID);
 
         Map<String, Object> variableDict = new HashMap<>();
         String caseName = "QueryPaymentPaidOrder";
@@ -96,8 +92,12 @@ class QueryOrderTest {
         variableDict.put("partnerReferenceNo", partnerReferenceNoPaid);
         variableDict.put("merchantId", merchantId);
 
-        Thread.sleep(5000); // Wait for the payment to be processed
-        QueryPaymentResponse response = api.queryPayment(requestData);
+        // Wait for the payment to be processed
+        QueryPaymentResponse response = Await.poll("order " + partnerReferenceNoPaid + " paid",
+                        () -> api.queryPayment(requestData))
+                .until(r -> "00".equals(String.valueOf(r.getLatestTransactionStatus())))
+                .ignoreExceptions()
+                .awaitOrLast();
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, variableDict);
     }
 
@@ -129,7 +129,7 @@ class QueryOrderTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "TIMESTAMP");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -153,7 +153,7 @@ class QueryOrderTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -177,7 +177,7 @@ class QueryOrderTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "testing");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -275,7 +275,11 @@ class QueryOrderTest {
     public static String payOrder(String phoneNumber, String pin) throws InterruptedException {
         List<String> dataOrder = createOrder();
         PaymentPGUtil.payOrder(phoneNumber,pin,dataOrder.get(1));
-        Thread.sleep(5000); // Wait for the payment to be processed
+        OrderPGUtil.awaitPaymentStatus(dataOrder.get(0), "00"); // Wait for the payment to be processed
         return dataOrder.get(0);
     }
+
+    static String paidOrder() throws InterruptedException {
+        return payOrder(userPhone, userPin);
+    }
 }
\ No newline at end of file
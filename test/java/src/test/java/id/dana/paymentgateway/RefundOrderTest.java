@@ -1,15 +1,17 @@
 package id.dana.paymentgateway;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.*;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.OrderPool;
+import id.dana.util.PerfReport;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 
 import java.io.IOException;
@@ -25,7 +27,14 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "createOrder")
+@OrderPool.Provision(state = OrderPool.State.REFUNDABLE, recipe = "paidOrder", count = 2,
+        takenBy = {"testRefundOrderValid", "testRefundOrderDuplicateRequest"})
 class RefundOrderTest {
     private static String jsonPathFile = RefundOrderTest.class.getResource("/request/components/PaymentGateway.json")
             .getPath();
@@ -33,32 +42,21 @@ class RefundOrderTest {
     private static String userPhone = "083811223355";
     private final String titleCase = "RefundOrder";
     private static final String merchantId = ConfigUtil.getConfig("MERCHANT_ID", "216620010016033632482");
-    private static PaymentGatewayApi api;
+    private static PaymentGatewayApi api = DanaBootstrap.paymentGatewayApi();
     private static String
             partnerReferenceNoPaid,
             partnerReferenceNoInit;
 
     @BeforeAll
-    static void setUp() {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
+    static void setUp(PaymentGatewayApi paymentGatewayApi) {
+        api = paymentGatewayApi;
 
-        api = Dana.getInstance().getPaymentGatewayApi();
-
-        List<String> dataOrder = createOrder();
-        partnerReferenceNoInit = dataOrder.get(0);
+        partnerReferenceNoInit = OrderPool.take(RefundOrderTest.class, OrderPool.State.INIT);
     }
 
-    @Test
     @RetryTestUtil.Retry
     void testRefundOrderValid() throws IOException {
-        partnerReferenceNoPaid = payOrder(userPhone, userPin);
+        partnerReferenceNoPaid = OrderPool.take(RefundOrderTest.class, OrderPool.State.REFUNDABLE);
         String caseName = "RefundOrderValidScenario";
         RefundOrderRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
             RefundOrderRequest.class);
@@ -155,7 +153,7 @@ class RefundOrderTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -213,7 +211,7 @@ class RefundOrderTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "85be817c55b2c135157c7e89f52499bf0c25ad6eeebe04a986e8c862561b19a5");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -257,7 +255,7 @@ class RefundOrderTest {
 
     @Test
     void testRefundOrderDuplicateRequest() throws IOException, InterruptedException {
-        partnerReferenceNoPaid = payOrder(userPhone, userPin);
+        partnerReferenceNoPaid = OrderPool.take(RefundOrderTest.class, OrderPool.State.REFUNDABLE);
         String caseName = "RefundOrderDuplicateRequest";
         RefundOrderRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
                 RefundOrderRequest.class);
@@ -274,7 +272,10 @@ class RefundOrderTest {
         money.setCurrency("IDR");
         money.setValue("10000.00");
         requestData.setRefundAmount(money);
+        // Refunds are not queryable here; give the first one time to register, then send the
+        // conflicting one exactly once so it can never be accepted as a second refund
         Thread.sleep(5000);
+        PerfReport.slept(5000);
         RefundOrderResponse response2 = api.refundOrder(requestData);
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response2, variableDict);
     }
@@ -348,4 +349,8 @@ class RefundOrderTest {
         PaymentPGUtil.payOrder(phoneNumber,pin,dataOrder.get(1));
         return dataOrder.get(0);
     }
+
+    static String paidOrder() {
+        return payOrder(userPhone, userPin);
+    }
 }
\ No newline at end of file
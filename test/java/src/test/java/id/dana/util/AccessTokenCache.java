@@ -0,0 +1,275 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.dana.util.local.LocalSandbox;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Widget access tokens keyed by (partnerId, scopes, phone number), so a suite only goes through the
+ * browser login when no valid token exists for that user.
+ *
+ * <p>A token is served until {@code ACCESS_TOKEN_REFRESH_AHEAD_SECONDS} (default 300) before its
+ * {@code accessTokenExpiryTime}; from then on the caller logs in again itself, so no test gets a
+ * token that dies while it runs. The login runs on the calling thread, which holds the suite's
+ * {@code @ResourceLock(SandboxResources.OAUTH_USER)}, never on a background thread that would log
+ * the user in alongside another suite. Tokens without a parseable expiry are kept for
+ * {@code ACCESS_TOKEN_TTL_SECONDS} (default 900).
+ *
+ * <p>Tokens are persisted to {@code ACCESS_TOKEN_CACHE_FILE} (default
+ * {@code .access-token-cache.json} in the working directory, outside {@code target/} so
+ * {@code mvn clean} keeps it) and read back on the next run. {@code ACCESS_TOKEN_CACHE=false}
+ * turns the cache off. Under {@code -Denv=LOCAL} tokens stay in memory, since the embedded server
+ * forgets them between runs.
+ *
+ * <p>A token leaves the cache when a test revokes it ({@link #invalidate}, e.g. after unbinding
+ * the account) and when the sandbox answers a request that carried it with a 401 about the token,
+ * so the next {@link #accessToken} logs in again instead of replaying a dead token from the file.
+ *
+ * <p>Auth codes are single-use, so they are never cached; tests that need one still log in.
+ */
+public final class AccessTokenCache {
+
+  private static final Logger log = LoggerFactory.getLogger(AccessTokenCache.class);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final boolean ENABLED =
+      Boolean.parseBoolean(ConfigUtil.getConfig("ACCESS_TOKEN_CACHE", "true"));
+
+  private static final long REFRESH_AHEAD_MILLIS =
+      Long.parseLong(ConfigUtil.getConfig("ACCESS_TOKEN_REFRESH_AHEAD_SECONDS", "300")) * 1_000;
+
+  private static final long DEFAULT_TTL_MILLIS =
+      Long.parseLong(ConfigUtil.getConfig("ACCESS_TOKEN_TTL_SECONDS", "900")) * 1_000;
+
+  private static final boolean PERSISTENT = !LocalSandbox.isEnabled();
+
+  private static final Path FILE =
+      Paths.get(ConfigUtil.getConfig("ACCESS_TOKEN_CACHE_FILE", ".access-token-cache.json"))
+          .toAbsolutePath();
+
+  private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+  static {
+    if (ENABLED && PERSISTENT) {
+      load();
+    }
+  }
+
+  private AccessTokenCache() {
+  }
+
+  /** Obtains a fresh token, typically auth code through the browser and then {@code applyToken}. */
+  @FunctionalInterface
+  public interface Login {
+
+    Token login() throws Exception;
+  }
+
+  /**
+   * Access token for the user, from the cache when it is still valid, otherwise from
+   * {@code login}. Checked exceptions from {@code login} are wrapped in an
+   * {@link IllegalStateException}.
+   */
+  public static String accessToken(String partnerId, String scopes, String phoneNumber, Login login) {
+    if (!ENABLED) {
+      return run(login).accessToken;
+    }
+    String key = partnerId + "|" + scopes + "|" + phoneNumber;
+    Entry entry = ENTRIES.computeIfAbsent(key, k -> new Entry());
+    long now = System.currentTimeMillis();
+    Token token = entry.token;
+    if (isFresh(token, now)) {
+      log.debug("[TOKEN] Cached access token for {}", phoneNumber);
+      return token.accessToken;
+    }
+    synchronized (entry) {
+      token = entry.token;
+      if (!isFresh(token, System.currentTimeMillis())) {
+        if (token != null) {
+          log.info("[TOKEN] Access token for {} is within {} s of expiry; logging in again",
+              phoneNumber, REFRESH_AHEAD_MILLIS / 1_000);
+        }
+        token = run(login);
+        entry.token = token;
+        save();
+      }
+      return token.accessToken;
+    }
+  }
+
+  /** Whether {@code token} is still outside the refresh-ahead window. */
+  private static boolean isFresh(Token token, long now) {
+    return token != null && token.expiresAt - REFRESH_AHEAD_MILLIS > now;
+  }
+
+  /** Drops the cached token, e.g. after a test unbinds the account it belongs to. */
+  public static void invalidate(String partnerId, String scopes, String phoneNumber) {
+    if (ENTRIES.remove(partnerId + "|" + scopes + "|" + phoneNumber) != null) {
+      save();
+    }
+  }
+
+  /**
+   * Evicts cached tokens the sandbox rejected. Installed on {@link HttpClientFactory#root()}, so it
+   * sees every SDK and raw call; requests only get inspected when the response is a 401.
+   */
+  static Interceptor evictRejected() {
+    return chain -> {
+      Request request = chain.request();
+      Response response = chain.proceed(request);
+      if (response.code() == 401 && !ENTRIES.isEmpty()) {
+        evictRejected(request, response);
+      }
+      return response;
+    };
+  }
+
+  private static void evictRejected(Request request, Response response) throws IOException {
+    if (!response.peekBody(4096).string().contains("Token")) {
+      return;
+    }
+    StringBuilder sent = new StringBuilder(request.headers().toString());
+    if (request.body() != null && !request.body().isOneShot()) {
+      Buffer buffer = new Buffer();
+      request.body().writeTo(buffer);
+      sent.append(buffer.readUtf8());
+    }
+    boolean evicted = false;
+    for (Map.Entry<String, Entry> cached : ENTRIES.entrySet()) {
+      Token token = cached.getValue().token;
+      if (token != null && sent.indexOf(token.accessToken) >= 0
+          && ENTRIES.remove(cached.getKey(), cached.getValue())) {
+        log.warn("[TOKEN] Sandbox rejected the cached access token for {}; evicted", cached.getKey());
+        evicted = true;
+      }
+    }
+    if (evicted) {
+      save();
+    }
+  }
+
+  private static Token run(Login login) {
+    try {
+      return login.login();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException("Login for an access token failed", e);
+    }
+  }
+
+  private static void load() {
+    if (!Files.isRegularFile(FILE)) {
+      return;
+    }
+    try {
+      Map<String, Token> stored = objectMapper.readValue(FILE.toFile(),
+          new TypeReference<Map<String, Token>>() {
+          });
+      long now = System.currentTimeMillis();
+      stored.forEach((key, token) -> {
+        if (token != null && token.accessToken != null && token.expiresAt > now) {
+          Entry entry = new Entry();
+          entry.token = token;
+          ENTRIES.put(key, entry);
+        }
+      });
+      log.info("[TOKEN] {} valid access token(s) read from {}", ENTRIES.size(), FILE);
+    } catch (IOException e) {
+      log.warn("Could not read access token cache {}: {}", FILE, e.getMessage());
+    }
+  }
+
+  private static synchronized void save() {
+    if (!PERSISTENT) {
+      return;
+    }
+    Map<String, Token> snapshot = new TreeMap<>();
+    ENTRIES.forEach((key, entry) -> {
+      Token token = entry.token;
+      if (token != null) {
+        snapshot.put(key, token);
+      }
+    });
+    try {
+      Path parent = FILE.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Path tmp = Files.createTempFile(parent, ".access-token-cache", ".tmp");
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(tmp.toFile(), snapshot);
+      Files.move(tmp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Could not write access token cache {}: {}", FILE, e.getMessage());
+    }
+  }
+
+  private static final class Entry {
+
+    private volatile Token token;
+  }
+
+  /** An access token and when it stops being valid (epoch millis). */
+  public static final class Token {
+
+    private String accessToken;
+    private long expiresAt;
+
+    private Token() {
+    }
+
+    private Token(String accessToken, long expiresAt) {
+      this.accessToken = accessToken;
+      this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Token from an {@code applyToken} response; {@code expiryTime} is its ISO-8601
+     * {@code accessTokenExpiryTime} and may be {@code null}.
+     */
+    public static Token of(String accessToken, String expiryTime) {
+      long expiresAt = System.currentTimeMillis() + DEFAULT_TTL_MILLIS;
+      if (expiryTime != null && !expiryTime.isEmpty()) {
+        try {
+          expiresAt = OffsetDateTime.parse(expiryTime).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+          log.debug("Unparseable accessTokenExpiryTime {}, using the default TTL", expiryTime);
+        }
+      }
+      return new Token(accessToken, expiresAt);
+    }
+
+    public String getAccessToken() {
+      return accessToken;
+    }
+
+    public long getExpiresAt() {
+      return expiresAt;
+    }
+
+    private void setAccessToken(String accessToken) {
+      this.accessToken = accessToken;
+    }
+
+    private void setExpiresAt(long expiresAt) {
+      this.expiresAt = expiresAt;
+    }
+  }
+}
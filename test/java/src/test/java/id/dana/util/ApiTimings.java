@@ -0,0 +1,350 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-call phase timings for every request made through {@link HttpClientFactory}, which covers
+ * the SDK API clients from {@link DanaBootstrap}, the per-test clients derived from it and the raw
+ * sandbox-tool calls.
+ *
+ * <p>Each call is split into {@link Phase phases} from OkHttp's {@link EventListener} events,
+ * tagged with the endpoint ({@code METHOD /path}) and the running test ({@link TestCaseContext}),
+ * and recorded into per-endpoint {@link LatencyHistogram}s. At the end of the run
+ * {@link RunSummaryListener} logs the percentiles per endpoint and writes them, with the per-test
+ * totals, to {@code target/api-latency.json} ({@code -Dapi.latency.report=<path>}).
+ */
+public final class ApiTimings {
+
+  private static final Logger log = LoggerFactory.getLogger(ApiTimings.class);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final String REPORT_PROPERTY = "api.latency.report";
+
+  private static final String DEFAULT_REPORT = "target/api-latency.json";
+
+  private static final Map<String, Map<Phase, LatencyHistogram>> ENDPOINTS = new ConcurrentHashMap<>();
+
+  private static final Queue<CallRecord> CALLS = new ConcurrentLinkedQueue<>();
+
+  /** Where a call's time goes, in microseconds. */
+  public enum Phase {
+    /** Interceptors before the connection is picked, {@code DanaAuth} signing included. */
+    PREPARE,
+    DNS,
+    /** TCP connect, without TLS. */
+    CONNECT,
+    TLS,
+    /** Writing request headers and body. */
+    SEND,
+    /** From the request being sent to the first response byte. */
+    SERVER,
+    /** Reading the response body. */
+    DOWNLOAD,
+    TOTAL
+  }
+
+  private ApiTimings() {
+  }
+
+  /** Calls recorded so far in this JVM, in completion order. */
+  public static List<CallRecord> recorded() {
+    return Collections.unmodifiableList(new ArrayList<>(CALLS));
+  }
+
+  public static String summary() {
+    LatencyHistogram total = new LatencyHistogram();
+    for (CallRecord call : CALLS) {
+      total.record(call.phases.get(Phase.TOTAL));
+    }
+    return String.format("calls=%d endpoints=%d p50=%d ms p99=%d ms max=%d ms",
+        total.count(), ENDPOINTS.size(), total.percentile(50) / 1_000,
+        total.percentile(99) / 1_000, total.max() / 1_000);
+  }
+
+  /** Logs one line per endpoint, slowest total first. */
+  public static void logSummary() {
+    List<Map.Entry<String, Map<Phase, LatencyHistogram>>> endpoints = new ArrayList<>(ENDPOINTS.entrySet());
+    endpoints.sort((a, b) -> Long.compare(totalMicros(b.getValue()), totalMicros(a.getValue())));
+    for (Map.Entry<String, Map<Phase, LatencyHistogram>> endpoint : endpoints) {
+      Map<Phase, LatencyHistogram> phases = endpoint.getValue();
+      LatencyHistogram total = phases.get(Phase.TOTAL);
+      log.info("[API] {} n={} p50={} p90={} p99={} max={} ms | prepare={} connect={} tls={} server={} download={} ms p50",
+          endpoint.getKey(), total.count(), ms(total.percentile(50)), ms(total.percentile(90)),
+          ms(total.percentile(99)), ms(total.max()), ms(phases.get(Phase.PREPARE).percentile(50)),
+          ms(phases.get(Phase.CONNECT).percentile(50)), ms(phases.get(Phase.TLS).percentile(50)),
+          ms(phases.get(Phase.SERVER).percentile(50)), ms(phases.get(Phase.DOWNLOAD).percentile(50)));
+    }
+  }
+
+  /**
+   * Writes the per-endpoint percentiles and per-test totals; does nothing when no call was made.
+   * Returns the file written, or {@code null}.
+   */
+  public static Path write() {
+    if (CALLS.isEmpty()) {
+      return null;
+    }
+    Map<String, Object> endpoints = new TreeMap<>();
+    ENDPOINTS.forEach((endpoint, phases) -> {
+      Map<String, Object> byPhase = new LinkedHashMap<>();
+      phases.forEach((phase, histogram) -> byPhase.put(phase.name().toLowerCase(Locale.ROOT), percentiles(histogram)));
+      endpoints.put(endpoint, byPhase);
+    });
+    Map<String, Map<String, Long>> tests = new TreeMap<>();
+    for (CallRecord call : CALLS) {
+      Map<String, Long> test = tests.computeIfAbsent(TestCaseContext.displayName(call.test), k -> new LinkedHashMap<>());
+      test.merge("calls", 1L, Long::sum);
+      test.merge("totalMicros", call.phases.get(Phase.TOTAL), Long::sum);
+    }
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("summary", summary());
+    report.put("endpoints", endpoints);
+    report.put("tests", tests);
+
+    Path path = Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT)).toAbsolutePath();
+    try {
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+      log.info("API latency report written to {}", path);
+      return path;
+    } catch (IOException e) {
+      log.warn("Could not write API latency report to {}: {}", path, e.getMessage());
+      return null;
+    }
+  }
+
+  private static Map<String, Long> percentiles(LatencyHistogram histogram) {
+    Map<String, Long> values = new LinkedHashMap<>();
+    values.put("count", histogram.count());
+    values.put("meanMicros", histogram.mean());
+    values.put("p50Micros", histogram.percentile(50));
+    values.put("p90Micros", histogram.percentile(90));
+    values.put("p99Micros", histogram.percentile(99));
+    values.put("maxMicros", histogram.max());
+    return values;
+  }
+
+  private static long totalMicros(Map<Phase, LatencyHistogram> phases) {
+    LatencyHistogram total = phases.get(Phase.TOTAL);
+    return total.mean() * total.count();
+  }
+
+  private static String ms(long micros) {
+    return String.format("%.1f", micros / 1_000.0);
+  }
+
+  private static void record(CallRecord call) {
+    CALLS.add(call);
+    Map<Phase, LatencyHistogram> phases = ENDPOINTS.computeIfAbsent(call.endpoint, k -> {
+      Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+      for (Phase phase : Phase.values()) {
+        histograms.put(phase, new LatencyHistogram());
+      }
+      return histograms;
+    });
+    call.phases.forEach((phase, micros) -> phases.get(phase).record(micros));
+  }
+
+  /**
+   * Times one call. Created by the client's {@link EventListener.Factory} on the thread that calls
+   * {@code newCall}, which is the test's thread for the synchronous SDK calls.
+   */
+  static class Listener extends EventListener {
+
+    private final String test = TestCaseContext.current();
+    private long callStart;
+    private long firstNetwork;
+    private long dnsStart;
+    private long dns;
+    private long connectStart;
+    private long connect;
+    private long tlsStart;
+    private long tls;
+    private long sendStart;
+    private long sendEnd;
+    private long responseStart;
+    private long responseEnd;
+    private int status;
+
+    @Override
+    public void callStart(Call call) {
+      callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+      dnsStart = network();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+      dns += System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+      connectStart = network();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+      tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+      tls += System.nanoTime() - tlsStart;
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+      connect += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+      network();
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+      if (sendStart == 0) {
+        sendStart = System.nanoTime();
+      }
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+      sendEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+      sendEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+      responseStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+      status = response.code();
+      RetryCoordinator.response(test, response);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+      responseEnd = System.nanoTime();
+    }
+
+    @Override
+    public void callEnd(Call call) {
+      finish(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+      finish(call);
+    }
+
+    private long network() {
+      long now = System.nanoTime();
+      if (firstNetwork == 0) {
+        firstNetwork = now;
+      }
+      return now;
+    }
+
+    private void finish(Call call) {
+      long end = System.nanoTime();
+      Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+      phases.put(Phase.PREPARE, micros(firstNetwork == 0 ? 0 : firstNetwork - callStart));
+      phases.put(Phase.DNS, micros(dns));
+      phases.put(Phase.CONNECT, micros(connect - tls));
+      phases.put(Phase.TLS, micros(tls));
+      phases.put(Phase.SEND, micros(sendEnd - sendStart));
+      phases.put(Phase.SERVER, micros(responseStart == 0 ? 0 : responseStart - sendEnd));
+      phases.put(Phase.DOWNLOAD, micros(responseEnd == 0 ? 0 : responseEnd - responseStart));
+      phases.put(Phase.TOTAL, micros(end - callStart));
+      Request request = call.request();
+      record(new CallRecord(test, request.method() + " " + request.url().encodedPath(), status,
+          System.currentTimeMillis() - phases.get(Phase.TOTAL) / 1_000, phases));
+    }
+
+    private static long micros(long nanos) {
+      return Math.max(0, nanos / 1_000);
+    }
+  }
+
+  /** One finished call. */
+  public static final class CallRecord {
+
+    private final String test;
+    private final String endpoint;
+    private final int status;
+    private final long startedAtMillis;
+    private final Map<Phase, Long> phases;
+
+    private CallRecord(String test, String endpoint, int status, long startedAtMillis,
+        Map<Phase, Long> phases) {
+      this.test = test;
+      this.endpoint = endpoint;
+      this.status = status;
+      this.startedAtMillis = startedAtMillis;
+      this.phases = phases;
+    }
+
+    public String getTest() {
+      return test;
+    }
+
+    public String getEndpoint() {
+      return endpoint;
+    }
+
+    /** HTTP status, {@code 0} when the call failed before a response. */
+    public int getStatus() {
+      return status;
+    }
+
+    public long getStartedAtMillis() {
+      return startedAtMillis;
+    }
+
+    public Map<Phase, Long> getPhases() {
+      return Collections.unmodifiableMap(phases);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import id.dana.invoker.JSON;
+import id.dana.util.TestUtil.Difference;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-run record of every fixture assertion, written once as a structured file when the test plan
+ * finishes (see {@link RunSummaryListener}) instead of dumping both payloads to the log on every
+ * pass.
+ *
+ * <p>Passing assertions keep only their coordinates and timing; failures also keep their
+ * differences. The file defaults to {@code target/assertion-report.json} and can be moved with
+ * {@code -Dassertion.report=<path>}.
+ */
+public final class AssertionReport {
+
+  private static final Logger log = LoggerFactory.getLogger(AssertionReport.class);
+
+  private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
+
+  private static final String REPORT_PROPERTY = "assertion.report";
+
+  private static final String DEFAULT_REPORT = "target/assertion-report.json";
+
+  private static final Queue<Record> RECORDS = new ConcurrentLinkedQueue<>();
+
+  private AssertionReport() {
+  }
+
+  static void passed(String jsonPathFile, String title, String caseName, String bodyType,
+      long elapsedNanos) {
+    RECORDS.add(new Record(fileName(jsonPathFile), title, caseName, bodyType, true,
+        elapsedNanos / 1_000, Collections.emptyList()));
+  }
+
+  static void failed(String jsonPathFile, String title, String caseName, String bodyType,
+      long elapsedNanos, List<Difference> differences) {
+    List<Mismatch> mismatches = new ArrayList<>(differences.size());
+    for (Difference difference : differences) {
+      mismatches.add(new Mismatch(difference.path, render(difference.expected),
+          render(difference.actual)));
+    }
+    RECORDS.add(new Record(fileName(jsonPathFile), title, caseName, bodyType, false,
+        elapsedNanos / 1_000, mismatches));
+  }
+
+  /** Assertions recorded so far in this JVM, in completion order. */
+  public static List<Record> recorded() {
+    return Collections.unmodifiableList(new ArrayList<>(RECORDS));
+  }
+
+  public static String summary() {
+    long count = 0;
+    long failed = 0;
+    long totalMicros = 0;
+    for (Record record : RECORDS) {
+      count++;
+      totalMicros += record.elapsedMicros;
+      if (!record.passed) {
+        failed++;
+      }
+    }
+    return String.format("assertions=%d passed=%d failed=%d avg=%d us",
+        count, count - failed, failed, count == 0 ? 0 : totalMicros / count);
+  }
+
+  /**
+   * Writes the recorded assertions to the report file; does nothing when none were recorded.
+   * Returns the file written, or {@code null}.
+   */
+  public static Path write() {
+    List<Record> records = recorded();
+    if (records.isEmpty()) {
+      return null;
+    }
+    Path path = Paths.get(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT)).toAbsolutePath();
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("summary", summary());
+    report.put("assertions", records);
+    try {
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+      log.info("Assertion report written to {}", path);
+      return path;
+    } catch (IOException e) {
+      log.warn("Could not write assertion report to {}: {}", path, e.getMessage());
+      return null;
+    }
+  }
+
+  private static String fileName(String jsonPathFile) {
+    Path fileName = Paths.get(jsonPathFile).getFileName();
+    return fileName == null ? jsonPathFile : fileName.toString();
+  }
+
+  private static String render(JsonNode node) {
+    return node == null ? null : node.toString();
+  }
+
+  /** One {@code assertResponse}/{@code assertFailResponse} call. */
+  public static final class Record {
+
+    private final String file;
+    private final String title;
+    private final String caseName;
+    private final String bodyType;
+    private final boolean passed;
+    private final long elapsedMicros;
+    private final List<Mismatch> differences;
+
+    private Record(String file, String title, String caseName, String bodyType, boolean passed,
+        long elapsedMicros, List<Mismatch> differences) {
+      this.file = file;
+      this.title = title;
+      this.caseName = caseName;
+      this.bodyType = bodyType;
+      this.passed = passed;
+      this.elapsedMicros = elapsedMicros;
+      this.differences = differences;
+    }
+
+    public String getFile() {
+      return file;
+    }
+
+    public String getTitle() {
+      return title;
+    }
+
+    public String getCaseName() {
+      return caseName;
+    }
+
+    public String getBodyType() {
+      return bodyType;
+    }
+
+    public boolean isPassed() {
+      return passed;
+    }
+
+    public long getElapsedMicros() {
+      return elapsedMicros;
+    }
+
+    public List<Mismatch> getDifferences() {
+      return differences;
+    }
+  }
+
+  /** A {@link Difference} rendered for the report. */
+  public static final class Mismatch {
+
+    private final String path;
+    private final String expected;
+    private final String actual;
+
+    private Mismatch(String path, String expected, String actual) {
+      this.path = path;
+      this.expected = expected;
+      this.actual = actual;
+    }
+
+    public String getPath() {
+      return path;
+    }
+
+    public String getExpected() {
+      return expected;
+    }
+
+    public String getActual() {
+      return actual;
+    }
+  }
+}
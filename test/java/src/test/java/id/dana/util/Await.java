@@ -0,0 +1,293 @@
+package id.dana.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Condition-based replacement for fixed {@code Thread.sleep} waits against the sandbox.
+ *
+ * <pre>
+ * QueryPaymentResponse response = Await.poll("order paid", () -&gt; api.queryPayment(request))
+ *     .until(r -&gt; "00".equals(String.valueOf(r.getLatestTransactionStatus())))
+ *     .deadline(Duration.ofSeconds(30))
+ *     .awaitOrLast();
+ * </pre>
+ *
+ * <p>The supplier is called immediately, then again after each interval; the interval grows by the
+ * backoff factor up to {@code maxInterval}, with random jitter so parallel tests do not poll in
+ * lockstep. Every wait is recorded (see {@link #recorded()}) and summarized at the end of the run.
+ */
+public final class Await<T> {
+
+  private static final Logger log = LoggerFactory.getLogger(Await.class);
+
+  private static final Queue<Record> RECORDS = new ConcurrentLinkedQueue<>();
+
+  private final String description;
+  private final Callable<T> supplier;
+  private Predicate<? super T> condition = value -> true;
+  private Duration initialDelay = Duration.ZERO;
+  private Duration interval = Duration.ofMillis(500);
+  private Duration maxInterval = Duration.ofSeconds(3);
+  private Duration deadline = Duration.ofSeconds(30);
+  private double backoff = 1.5;
+  private double jitter = 0.2;
+  private boolean ignoreExceptions;
+
+  private Await(String description, Callable<T> supplier) {
+    this.description = description;
+    this.supplier = supplier;
+  }
+
+  public static <T> Await<T> poll(String description, Callable<T> supplier) {
+    return new Await<>(description, supplier);
+  }
+
+  public Await<T> until(Predicate<? super T> condition) {
+    this.condition = condition;
+    return this;
+  }
+
+  public Await<T> initialDelay(Duration initialDelay) {
+    this.initialDelay = initialDelay;
+    return this;
+  }
+
+  public Await<T> interval(Duration interval) {
+    this.interval = interval;
+    return this;
+  }
+
+  public Await<T> maxInterval(Duration maxInterval) {
+    this.maxInterval = maxInterval;
+    return this;
+  }
+
+  public Await<T> deadline(Duration deadline) {
+    this.deadline = deadline;
+    return this;
+  }
+
+  /** Multiplier applied to the interval after every unsuccessful poll; {@code 1} polls at a fixed rate. */
+  public Await<T> backoff(double backoff) {
+    this.backoff = backoff;
+    return this;
+  }
+
+  /** Fraction of the interval, {@code 0..1}, randomly added to or taken from each wait. */
+  public Await<T> jitter(double jitter) {
+    this.jitter = jitter;
+    return this;
+  }
+
+  /** Treat exceptions from the supplier as "not yet" instead of failing immediately. */
+  public Await<T> ignoreExceptions() {
+    this.ignoreExceptions = true;
+    return this;
+  }
+
+  /**
+   * Polls until the condition holds and returns that value.
+   *
+   * @throws Timeout if the deadline passes first
+   */
+  public T await() {
+    Outcome<T> outcome = run();
+    if (!outcome.satisfied) {
+      throw new Timeout("Timed out after " + outcome.elapsedMs + " ms waiting for " + description
+          + (outcome.lastFailure != null ? ", last error: " + outcome.lastFailure.getMessage() : ""),
+          outcome.lastFailure);
+    }
+    return outcome.value;
+  }
+
+  /**
+   * Polls until the condition holds or the deadline passes, returning the last value either way so
+   * the caller's own assertion reports the mismatch.
+   */
+  public T awaitOrLast() {
+    Outcome<T> outcome = run();
+    if (!outcome.satisfied && outcome.value == null && outcome.lastFailure != null) {
+      throw new Timeout("Timed out after " + outcome.elapsedMs + " ms waiting for " + description
+          + ", last error: " + outcome.lastFailure.getMessage(), outcome.lastFailure);
+    }
+    return outcome.value;
+  }
+
+  /**
+   * A wait that ran past its deadline: the sandbox was slow, not wrong, so {@link RetryCoordinator}
+   * treats it as transient. Still an {@link AssertionError}, so it fails the test like one.
+   */
+  public static final class Timeout extends AssertionError {
+
+    private Timeout(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
+
+  /** Waits recorded so far in this JVM, in completion order. */
+  public static List<Record> recorded() {
+    return Collections.unmodifiableList(new ArrayList<>(RECORDS));
+  }
+
+  public static String summary() {
+    long count = 0;
+    long totalMs = 0;
+    long timedOut = 0;
+    for (Record record : RECORDS) {
+      count++;
+      totalMs += record.elapsedMs;
+      if (!record.satisfied) {
+        timedOut++;
+      }
+    }
+    return String.format("waits=%d total=%d ms avg=%d ms timedOut=%d",
+        count, totalMs, count == 0 ? 0 : totalMs / count, timedOut);
+  }
+
+  private Outcome<T> run() {
+    long start = System.nanoTime();
+    long deadlineNanos = start + deadline.toNanos();
+    long nextInterval = interval.toMillis();
+    int polls = 0;
+    long sleptMs = 0;
+    T value = null;
+    Exception lastFailure = null;
+    boolean satisfied = false;
+
+    sleptMs += sleep(initialDelay.toMillis());
+    while (true) {
+      polls++;
+      try {
+        value = supplier.call();
+        lastFailure = null;
+        if (condition.test(value)) {
+          satisfied = true;
+          break;
+        }
+      } catch (Exception e) {
+        if (!ignoreExceptions) {
+          record(start, polls, false, sleptMs);
+          throw e instanceof RuntimeException ? (RuntimeException) e
+              : new IllegalStateException("Polling failed while waiting for " + description, e);
+        }
+        lastFailure = e;
+      }
+
+      long remainingMs = (deadlineNanos - System.nanoTime()) / 1_000_000;
+      if (remainingMs <= 0) {
+        break;
+      }
+      sleptMs += sleep(Math.min(withJitter(nextInterval), remainingMs));
+      nextInterval = Math.min((long) (nextInterval * backoff), maxInterval.toMillis());
+    }
+
+    long elapsedMs = record(start, polls, satisfied, sleptMs);
+    if (satisfied) {
+      log.info("[WAIT] {} satisfied after {} ms ({} polls)", description, elapsedMs, polls);
+    } else {
+      log.warn("[WAIT] {} not satisfied after {} ms ({} polls)", description, elapsedMs, polls);
+    }
+    return new Outcome<>(value, satisfied, elapsedMs, lastFailure);
+  }
+
+  private long withJitter(long millis) {
+    if (jitter <= 0 || millis <= 0) {
+      return millis;
+    }
+    double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+    return Math.max(0, (long) (millis * factor));
+  }
+
+  private long record(long start, int polls, boolean satisfied, long sleptMs) {
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    RECORDS.add(new Record(description, TestCaseContext.current(), elapsedMs, sleptMs, polls, satisfied));
+    return elapsedMs;
+  }
+
+  /** Sleeps and returns the milliseconds actually slept. */
+  private static long sleep(long millis) {
+    if (millis <= 0) {
+      return 0;
+    }
+    long start = System.nanoTime();
+    try {
+      Thread.sleep(millis);
+      return (System.nanoTime() - start) / 1_000_000;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting", e);
+    }
+  }
+
+  /** How long one wait took and whether its condition was met. */
+  public static final class Record {
+
+    private final String description;
+    private final String test;
+    private final long elapsedMs;
+    private final long sleptMs;
+    private final int polls;
+    private final boolean satisfied;
+
+    private Record(String description, String test, long elapsedMs, long sleptMs, int polls,
+        boolean satisfied) {
+      this.description = description;
+      this.test = test;
+      this.elapsedMs = elapsedMs;
+      this.sleptMs = sleptMs;
+      this.polls = polls;
+      this.satisfied = satisfied;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    /** The test that waited, see {@link TestCaseContext#current()}. */
+    public String getTest() {
+      return test;
+    }
+
+    public long getElapsedMs() {
+      return elapsedMs;
+    }
+
+    /** Part of {@link #getElapsedMs()} spent sleeping between polls rather than polling. */
+    public long getSleptMs() {
+      return sleptMs;
+    }
+
+    public int getPolls() {
+      return polls;
+    }
+
+    public boolean isSatisfied() {
+      return satisfied;
+    }
+  }
+
+  private static final class Outcome<T> {
+
+    private final T value;
+    private final boolean satisfied;
+    private final long elapsedMs;
+    private final Exception lastFailure;
+
+    private Outcome(T value, boolean satisfied, long elapsedMs, Exception lastFailure) {
+      this.value = value;
+      this.satisfied = satisfied;
+      this.elapsedMs = elapsedMs;
+      this.lastFailure = lastFailure;
+    }
+  }
+}
@@ -1,12 +1,14 @@
 package id.dana.util;
 
+import id.dana.util.local.LocalSandbox;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
  * Dispatches to Playwright-based helpers compiled from {@code src/test/java-browser} when the
  * {@code with-playwright} Maven profile is active. When that profile is off, those classes are absent
- * and callers get a clear {@link IllegalStateException}.
+ * and callers get a clear {@link IllegalStateException}. Under {@code -Denv=LOCAL} no browser is
+ * started; the steps are completed directly against {@link LocalSandbox}.
  */
 public final class BrowserTestSupport {
 
@@ -14,6 +16,10 @@ public final class BrowserTestSupport {
     }
 
     public static void paymentGatewayPayOrder(String phoneNumber, String pin, String redirectUrlPay) {
+        if (LocalSandbox.isEnabled()) {
+            LocalSandbox.pay(redirectUrlPay);
+            return;
+        }
         invokeVoid(
                 "id.dana.paymentgateway.PaymentPGBrowser",
                 "payOrder",
@@ -24,6 +30,10 @@ public final class BrowserTestSupport {
     }
 
     public static void widgetPayOrder(String phoneNumber, String pin, String redirectUrlPay) {
+        if (LocalSandbox.isEnabled()) {
+            LocalSandbox.pay(redirectUrlPay);
+            return;
+        }
         invokeVoid(
                 "id.dana.widget.PaymentWidgetBrowser",
                 "payOrder",
@@ -34,6 +44,9 @@ public final class BrowserTestSupport {
     }
 
     public static String oauthGetOauthViaView(String urlRedirectLinkAuthCode, String phoneNumber, String pin) {
+        if (LocalSandbox.isEnabled()) {
+            return LocalSandbox.authorize(urlRedirectLinkAuthCode);
+        }
         Object out = invoke(
                 "id.dana.widget.OauthBrowser",
                 "getOauthViaView",
@@ -0,0 +1,80 @@
+package id.dana.util;
+
+import id.dana.disbursement.v1.api.DisbursementApi;
+import id.dana.invoker.auth.DanaAuth;
+import id.dana.invoker.model.DanaConfig;
+import id.dana.invoker.model.constant.EnvKey;
+import id.dana.invoker.model.enumeration.DanaEnvironment;
+import id.dana.merchantmanagement.v1.api.MerchantManagementApi;
+import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
+import id.dana.util.local.LocalSandbox;
+import id.dana.widget.v1.api.WidgetApi;
+import okhttp3.OkHttpClient;
+
+/**
+ * Once-per-JVM {@link DanaConfig} initialization and the SDK API clients built on top of it.
+ *
+ * <p>The config is read from {@link ConfigUtil} a single time; the API objects share one
+ * {@link DanaAuth}-signed client derived from {@link HttpClientFactory}. Test classes get them
+ * injected through {@link DanaExtension}; static helpers call the accessors directly.
+ * With {@code -Denv=LOCAL} the SDK is configured for the sandbox and {@link HttpClientFactory}
+ * routes its calls to {@link LocalSandbox}.
+ */
+public final class DanaBootstrap {
+
+  private DanaBootstrap() {
+  }
+
+  /** Makes sure {@link DanaConfig} is initialized; safe to call any number of times. */
+  public static void init() {
+    Holder.touch();
+  }
+
+  public static PaymentGatewayApi paymentGatewayApi() {
+    return Holder.PAYMENT_GATEWAY_API;
+  }
+
+  public static WidgetApi widgetApi() {
+    return Holder.WIDGET_API;
+  }
+
+  public static DisbursementApi disbursementApi() {
+    return Holder.DISBURSEMENT_API;
+  }
+
+  public static MerchantManagementApi merchantManagementApi() {
+    return Holder.MERCHANT_MANAGEMENT_API;
+  }
+
+  /** Lazy holder: class initialization gives us thread-safe, exactly-once setup. */
+  private static final class Holder {
+
+    private static final OkHttpClient CLIENT;
+    private static final PaymentGatewayApi PAYMENT_GATEWAY_API;
+    private static final WidgetApi WIDGET_API;
+    private static final DisbursementApi DISBURSEMENT_API;
+    private static final MerchantManagementApi MERCHANT_MANAGEMENT_API;
+
+    static {
+      DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
+      danaConfigBuilder
+          .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
+          .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
+          .origin(ConfigUtil.getConfig("ORIGIN", ""))
+          .clientSecret(ConfigUtil.getConfig(EnvKey.CLIENT_SECRET, ""))
+          .env(DanaEnvironment.getByName(
+              LocalSandbox.isEnabled() ? "SANDBOX" : ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
+
+      DanaConfig.getInstance(danaConfigBuilder);
+
+      CLIENT = HttpClientFactory.withInterceptors(new DanaAuth());
+      PAYMENT_GATEWAY_API = new PaymentGatewayApi(CLIENT);
+      WIDGET_API = new WidgetApi(CLIENT);
+      DISBURSEMENT_API = new DisbursementApi(CLIENT);
+      MERCHANT_MANAGEMENT_API = new MerchantManagementApi(CLIENT);
+    }
+
+    private static void touch() {
+    }
+  }
+}
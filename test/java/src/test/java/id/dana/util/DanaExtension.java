@@ -0,0 +1,60 @@
+package id.dana.util;
+
+import id.dana.disbursement.v1.api.DisbursementApi;
+import id.dana.merchantmanagement.v1.api.MerchantManagementApi;
+import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
+import id.dana.widget.v1.api.WidgetApi;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Initializes {@link DanaBootstrap} before the first test of a class and injects the shared SDK
+ * API clients into test, {@code @BeforeEach} and {@code @BeforeAll} method parameters.
+ *
+ * <pre>
+ * &#64;ExtendWith(DanaExtension.class)
+ * class CreateOrderTest {
+ *   &#64;BeforeEach
+ *   void setUp(PaymentGatewayApi api) { ... }
+ * }
+ * </pre>
+ */
+public class DanaExtension implements BeforeAllCallback, ParameterResolver {
+
+  @Override
+  public void beforeAll(ExtensionContext context) {
+    DanaBootstrap.init();
+  }
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+      throws ParameterResolutionException {
+    Class<?> type = parameterContext.getParameter().getType();
+    return type == PaymentGatewayApi.class
+        || type == WidgetApi.class
+        || type == DisbursementApi.class
+        || type == MerchantManagementApi.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
+      throws ParameterResolutionException {
+    Class<?> type = parameterContext.getParameter().getType();
+    if (type == PaymentGatewayApi.class) {
+      return DanaBootstrap.paymentGatewayApi();
+    }
+    if (type == WidgetApi.class) {
+      return DanaBootstrap.widgetApi();
+    }
+    if (type == DisbursementApi.class) {
+      return DanaBootstrap.disbursementApi();
+    }
+    if (type == MerchantManagementApi.class) {
+      return DanaBootstrap.merchantManagementApi();
+    }
+    throw new ParameterResolutionException("Unsupported parameter type: " + type.getName());
+  }
+}
@@ -0,0 +1,186 @@
+package id.dana.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets every empty string ({@code ""}) in an SDK model and its nested models/lists to
+ * {@code null}, so JSON-backed requests match the API expectation (null vs "").
+ *
+ * <p>Each class is analysed once and the result kept in a {@link ClassValue}: which instance
+ * fields are Strings, enums or anything else worth descending into, already made accessible. For
+ * enums, {@code getValue()} is resolved once as a {@link MethodHandle} and evaluated for every
+ * constant, so an enum field costs an ordinal lookup afterwards. Later calls for the same class do
+ * no reflective lookups at all.
+ */
+public final class EmptyStringNullifier {
+
+  private static final ClassValue<Plan> PLANS = new ClassValue<Plan>() {
+    @Override
+    protected Plan computeValue(Class<?> type) {
+      return Plan.compile(type);
+    }
+  };
+
+  /** Per enum class, indexed by ordinal: whether the constant's value is {@code ""}. */
+  private static final ClassValue<boolean[]> BLANK_CONSTANTS = new ClassValue<boolean[]>() {
+    @Override
+    protected boolean[] computeValue(Class<?> type) {
+      return blankConstants(type);
+    }
+  };
+
+  private EmptyStringNullifier() {
+  }
+
+  public static void nullify(Object obj) {
+    if (obj != null) {
+      PLANS.get(obj.getClass()).apply(obj);
+    }
+  }
+
+  private static boolean isSimpleType(Class<?> c) {
+    return c.isPrimitive() || c == String.class || Number.class.isAssignableFrom(c)
+        || c == Boolean.class || c == Character.class || c == java.util.Date.class
+        || isPlatformType(c);
+  }
+
+  private static boolean isPlatformType(Class<?> c) {
+    Package p = c.getPackage();
+    return p != null && (p.getName().startsWith("java.") || p.getName().startsWith("javax."));
+  }
+
+  private static boolean[] blankConstants(Class<?> enumType) {
+    Object[] constants = enumType.getEnumConstants();
+    boolean[] blank = new boolean[constants.length];
+    MethodHandle getValue = null;
+    try {
+      Method method = enumType.getMethod("getValue");
+      getValue = MethodHandles.lookup().unreflect(method);
+    } catch (ReflectiveOperationException e) {
+      // No accessible getValue(): fall back to the constant name, which is never empty.
+    }
+    if (getValue == null) {
+      return blank;
+    }
+    for (int i = 0; i < constants.length; i++) {
+      try {
+        Object value = getValue.invoke(constants[i]);
+        blank[i] = value != null && value.toString().isEmpty();
+      } catch (Throwable e) {
+        blank[i] = false;
+      }
+    }
+    return blank;
+  }
+
+  private static final class Plan {
+
+    private static final Plan IGNORE = new Plan(Kind.IGNORE, false, new FieldAction[0]);
+
+    private enum Kind { IGNORE, LIST, MODEL }
+
+    private final Kind kind;
+    /** Whether a field value of this runtime type is descended into. */
+    private final boolean descend;
+    private final FieldAction[] fields;
+
+    private Plan(Kind kind, boolean descend, FieldAction[] fields) {
+      this.kind = kind;
+      this.descend = descend;
+      this.fields = fields;
+    }
+
+    static Plan compile(Class<?> c) {
+      if (c.isEnum() || c.isPrimitive() || c == String.class || isPlatformType(c)) {
+        return IGNORE;
+      }
+      boolean descend = !isSimpleType(c);
+      if (List.class.isAssignableFrom(c)) {
+        return new Plan(Kind.LIST, descend, new FieldAction[0]);
+      }
+      if (Map.class.isAssignableFrom(c)) {
+        return new Plan(Kind.IGNORE, descend, new FieldAction[0]);
+      }
+      List<FieldAction> actions = new ArrayList<>();
+      for (Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+        for (Field f : k.getDeclaredFields()) {
+          if (Modifier.isStatic(f.getModifiers())) {
+            continue;
+          }
+          f.setAccessible(true);
+          actions.add(new FieldAction(f));
+        }
+      }
+      return new Plan(Kind.MODEL, descend, actions.toArray(new FieldAction[0]));
+    }
+
+    void apply(Object obj) {
+      switch (kind) {
+        case LIST:
+          applyToItems((List<?>) obj);
+          break;
+        case MODEL:
+          for (FieldAction field : fields) {
+            field.apply(obj);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  private static void applyToItems(List<?> items) {
+    for (Object item : items) {
+      nullify(item);
+    }
+  }
+
+  private static final class FieldAction {
+
+    private final Field field;
+    private final boolean string;
+    private final boolean enumType;
+
+    FieldAction(Field field) {
+      this.field = field;
+      this.string = field.getType() == String.class;
+      this.enumType = field.getType().isEnum();
+    }
+
+    void apply(Object obj) {
+      try {
+        Object val = field.get(obj);
+        if (val == null) {
+          return;
+        }
+        if (string) {
+          if ("".equals(val)) {
+            field.set(obj, null);
+          }
+        } else if (enumType) {
+          Enum<?> constant = (Enum<?>) val;
+          if (BLANK_CONSTANTS.get(constant.getDeclaringClass())[constant.ordinal()]) {
+            field.set(obj, null);
+          }
+        } else {
+          Plan plan = PLANS.get(val.getClass());
+          if (plan.descend) {
+            plan.apply(val);
+          } else if (val instanceof List) {
+            applyToItems((List<?>) val);
+          }
+        }
+      } catch (IllegalAccessException ignored) {
+        // setAccessible succeeded at compile time; nothing sensible to do here.
+      }
+    }
+  }
+}
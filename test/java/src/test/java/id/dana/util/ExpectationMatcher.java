@@ -0,0 +1,435 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import id.dana.invoker.JSON;
+import id.dana.util.TestUtil.Difference;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected fixture response compiled once into a matcher, with the same rules as
+ * {@link TestUtil#compareJsonObjects}.
+ *
+ * <p>Compiling walks the expected tree once: pipe-separated alternatives are pre-split,
+ * {@code ${valueFromServer}} and {@code ${variable}} slots are marked, and object keys are indexed.
+ * Matching streams the actual response (SDK models through a {@link TokenBuffer}, raw bodies through
+ * a parser) and only materializes the pieces it has to keep: arrays, numbers and any value that
+ * ends up in a {@link Difference}. Fields the fixture does not mention are skipped without being
+ * read into nodes, and a path string is only built when a difference is recorded.
+ *
+ * <p>Differences are reported in expected-tree order, the same order the tree walk produces.
+ */
+public final class ExpectationMatcher {
+
+  private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
+
+  /** Reads sub-trees mid-stream, so trailing tokens are expected. */
+  private static final ObjectReader treeReader =
+      objectMapper.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+
+  private static final String SERVER_VALUE = "${valueFromServer}";
+
+  private final Expectation root;
+
+  private ExpectationMatcher(Expectation root) {
+    this.root = root;
+  }
+
+  /** Compiles {@code expected}; the node must not be modified afterwards. */
+  public static ExpectationMatcher compile(JsonNode expected) {
+    return new ExpectationMatcher(compile(expected, null, null, -1, new int[1], false));
+  }
+
+  /**
+   * Matches {@code actual} (an SDK model, a raw JSON {@code String} or a {@link JsonNode}) against
+   * the expectation, substituting whole-string {@code ${name}} slots from {@code variables} the way
+   * {@link TestUtil#replaceVariables} does.
+   */
+  public List<Difference> match(Object actual, Map<String, Object> variables) throws IOException {
+    Context context = new Context(variables);
+    if (actual == null) {
+      root.tree(null, context);
+    } else if (actual instanceof JsonNode) {
+      root.tree((JsonNode) actual, context);
+    } else if (actual instanceof String) {
+      try (JsonParser parser = objectMapper.createParser((String) actual)) {
+        if (parser.nextToken() == null) {
+          root.tree(objectMapper.readTree((String) actual), context);
+        } else {
+          root.stream(parser, context);
+        }
+      }
+    } else {
+      TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+      if (objectMapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+        buffer = buffer.forceUseOfBigDecimal(true);
+      }
+      objectMapper.writer().without(SerializationFeature.WRAP_ROOT_VALUE).writeValue(buffer, actual);
+      try (JsonParser parser = buffer.asParser(objectMapper)) {
+        parser.nextToken();
+        root.stream(parser, context);
+      }
+    }
+    return context.differences();
+  }
+
+  private static Expectation compile(JsonNode expected, Expectation parent, String key, int index,
+      int[] ordinals, boolean substituted) {
+    int ordinal = substituted ? ordinals[0] : ordinals[0]++;
+    if (expected.isObject()) {
+      ObjectExpectation object = new ObjectExpectation(expected, parent, key, index, ordinal);
+      Expectation[] children = new Expectation[expected.size()];
+      Map<String, Integer> positions = new HashMap<>();
+      int i = 0;
+      for (Iterator<String> it = expected.fieldNames(); it.hasNext(); i++) {
+        String name = it.next();
+        positions.put(name, i);
+        children[i] = compile(expected.get(name), object, name, -1, ordinals, substituted);
+      }
+      object.children = children;
+      object.positions = positions;
+      return object;
+    }
+    if (expected.isArray()) {
+      ArrayExpectation array = new ArrayExpectation(expected, parent, key, index, ordinal);
+      Expectation[] items = new Expectation[expected.size()];
+      for (int i = 0; i < items.length; i++) {
+        items[i] = compile(expected.get(i), array, null, i, ordinals, substituted);
+      }
+      array.items = items;
+      return array;
+    }
+    if (expected.isTextual()) {
+      String text = expected.textValue();
+      Expectation literal = SERVER_VALUE.equals(text)
+          ? new ServerValueExpectation(expected, parent, key, index, ordinal)
+          : new TextExpectation(expected, parent, key, index, ordinal);
+      if (!substituted && text.startsWith("${") && text.endsWith("}")) {
+        return new VariableExpectation(text.substring(2, text.length() - 1), literal);
+      }
+      return literal;
+    }
+    return new ScalarExpectation(expected, parent, key, index, ordinal);
+  }
+
+  /** Reads the value the parser is positioned on, consuming it. */
+  private static JsonNode readActual(JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NULL:
+        return NullNode.getInstance();
+      case VALUE_TRUE:
+        return BooleanNode.TRUE;
+      case VALUE_FALSE:
+        return BooleanNode.FALSE;
+      case VALUE_STRING:
+        return TextNode.valueOf(parser.getText());
+      default:
+        return treeReader.readTree(parser);
+    }
+  }
+
+  private static final class Context {
+
+    private final Map<String, Object> variables;
+    private List<Difference> differences;
+    private List<Integer> ordinals;
+
+    private Context(Map<String, Object> variables) {
+      this.variables = variables == null || variables.isEmpty() ? null : variables;
+    }
+
+    private void add(int ordinal, Difference difference) {
+      if (differences == null) {
+        differences = new ArrayList<>();
+        ordinals = new ArrayList<>();
+      }
+      int at = ordinals.size();
+      while (at > 0 && ordinals.get(at - 1) > ordinal) {
+        at--;
+      }
+      ordinals.add(at, ordinal);
+      differences.add(at, difference);
+    }
+
+    private List<Difference> differences() {
+      return differences == null ? Collections.emptyList() : differences;
+    }
+  }
+
+  private abstract static class Expectation {
+
+    final JsonNode expected;
+    private final Expectation parent;
+    private final String key;
+    private final int index;
+    final int ordinal;
+    private volatile String path;
+
+    Expectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      this.expected = expected;
+      this.parent = parent;
+      this.key = key;
+      this.index = index;
+      this.ordinal = ordinal;
+    }
+
+    /** Parser is positioned on the first token of the actual value; consumes the whole value. */
+    abstract void stream(JsonParser parser, Context context) throws IOException;
+
+    /** {@code actual} is {@code null} only when there is no actual value at all. */
+    abstract void tree(JsonNode actual, Context context);
+
+    /** The expected key is absent from the actual object. */
+    void missing(Context context) {
+      differ(null, context);
+    }
+
+    void differ(JsonNode actual, Context context) {
+      context.add(ordinal, new Difference(path(), expected, actual));
+    }
+
+    /** Same format as {@link TestUtil#compareJsonObjects}: {@code a.b[0].c}. */
+    String path() {
+      String built = path;
+      if (built == null) {
+        String parentPath = parent == null ? "" : parent.path();
+        if (key != null) {
+          built = parentPath.isEmpty() ? key : parentPath + "." + key;
+        } else if (index >= 0) {
+          built = parentPath + "[" + index + "]";
+        } else {
+          built = parentPath;
+        }
+        path = built;
+      }
+      return built;
+    }
+  }
+
+  private static final class ObjectExpectation extends Expectation {
+
+    private Expectation[] children;
+    private Map<String, Integer> positions;
+
+    ObjectExpectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      super(expected, parent, key, index, ordinal);
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        tree(readActual(parser), context);
+        return;
+      }
+      boolean[] seen = new boolean[children.length];
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        Integer position = positions.get(parser.currentName());
+        parser.nextToken();
+        if (position == null) {
+          parser.skipChildren();
+          continue;
+        }
+        seen[position] = true;
+        children[position].stream(parser, context);
+      }
+      for (int i = 0; i < children.length; i++) {
+        if (!seen[i]) {
+          children[i].missing(context);
+        }
+      }
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      if (actual == null || !actual.isObject()) {
+        differ(actual, context);
+        return;
+      }
+      for (Expectation child : children) {
+        JsonNode value = actual.get(child.key);
+        if (value == null) {
+          child.missing(context);
+        } else {
+          child.tree(value, context);
+        }
+      }
+    }
+  }
+
+  private static final class ArrayExpectation extends Expectation {
+
+    private Expectation[] items;
+
+    ArrayExpectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      super(expected, parent, key, index, ordinal);
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      tree(readActual(parser), context);
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      if (actual == null || !actual.isArray() || actual.size() != items.length) {
+        differ(actual, context);
+        return;
+      }
+      for (int i = 0; i < items.length; i++) {
+        items[i].tree(actual.get(i), context);
+      }
+    }
+  }
+
+  /** {@code ${valueFromServer}}: any present, non-null value passes. */
+  private static final class ServerValueExpectation extends Expectation {
+
+    ServerValueExpectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      super(expected, parent, key, index, ordinal);
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      if (parser.currentToken() == JsonToken.VALUE_NULL) {
+        differ(NullNode.getInstance(), context);
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      if (actual == null || actual.isNull()) {
+        differ(actual, context);
+      }
+    }
+  }
+
+  /** String value, optionally {@code a|b|c} alternatives (aligned with Go/Node/PHP/Python). */
+  private static final class TextExpectation extends Expectation {
+
+    private final String text;
+    private final String[] alternatives;
+
+    TextExpectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      super(expected, parent, key, index, ordinal);
+      this.text = expected.textValue();
+      if (text.contains("|")) {
+        String[] split = text.split("\\|");
+        for (int i = 0; i < split.length; i++) {
+          split[i] = split[i].trim();
+        }
+        this.alternatives = split;
+      } else {
+        this.alternatives = null;
+      }
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      if (parser.currentToken() != JsonToken.VALUE_STRING) {
+        tree(readActual(parser), context);
+        return;
+      }
+      String actual = parser.getText();
+      if (!matches(actual)) {
+        differ(TextNode.valueOf(actual), context);
+      }
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      if (actual == null || !actual.isTextual() || !matches(actual.textValue())) {
+        differ(actual, context);
+      }
+    }
+
+    private boolean matches(String actual) {
+      if (text.equals(actual)) {
+        return true;
+      }
+      if (alternatives != null) {
+        for (String alternative : alternatives) {
+          if (alternative.equals(actual)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  /** Numbers, booleans and {@code null}: node type and value must be equal. */
+  private static final class ScalarExpectation extends Expectation {
+
+    ScalarExpectation(JsonNode expected, Expectation parent, String key, int index, int ordinal) {
+      super(expected, parent, key, index, ordinal);
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      tree(readActual(parser), context);
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      if (actual == null || expected.getNodeType() != actual.getNodeType() || !expected.equals(actual)) {
+        differ(actual, context);
+      }
+    }
+  }
+
+  /**
+   * Whole-string {@code ${name}} slot: replaced by the test's variable when one is given, otherwise
+   * matched literally (or as {@code ${valueFromServer}}).
+   */
+  private static final class VariableExpectation extends Expectation {
+
+    private final String name;
+    private final Expectation literal;
+
+    VariableExpectation(String name, Expectation literal) {
+      super(literal.expected, literal.parent, literal.key, literal.index, literal.ordinal);
+      this.name = name;
+      this.literal = literal;
+    }
+
+    @Override
+    void stream(JsonParser parser, Context context) throws IOException {
+      resolve(context).stream(parser, context);
+    }
+
+    @Override
+    void tree(JsonNode actual, Context context) {
+      resolve(context).tree(actual, context);
+    }
+
+    @Override
+    void missing(Context context) {
+      resolve(context).missing(context);
+    }
+
+    private Expectation resolve(Context context) {
+      if (context.variables == null || !context.variables.containsKey(name)) {
+        return literal;
+      }
+      JsonNode value = objectMapper.valueToTree(context.variables.get(name));
+      return compile(value, literal.parent, literal.key, literal.index, new int[] {ordinal}, true);
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import id.dana.invoker.JSON;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parse-once cache of the component fixture files ({@code PaymentGateway.json}, {@code Widget.json},
+ * {@code Disbursement.json}, ...).
+ *
+ * <p>Each file is read and parsed at most once per JVM and its {@code title/case/request|response}
+ * nodes are indexed, so lookups are a map hit without file I/O. Callers always receive a deep copy
+ * and may mutate it freely. Each entry also carries its compiled {@link TemplatePlan}, so
+ * {@link #getResolved} substitutes {@code ${VAR}} placeholders without re-scanning the node.
+ */
+public final class FixtureRepository {
+
+  private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
+
+  private static final Map<String, FixtureFile> FILES = new ConcurrentHashMap<>();
+
+  private FixtureRepository() {
+  }
+
+  public static JsonNode getRequest(String jsonPathFile, String title, String caseName) {
+    return get(jsonPathFile, title, caseName, "request");
+  }
+
+  public static JsonNode getResponse(String jsonPathFile, String title, String caseName) {
+    return get(jsonPathFile, title, caseName, "response");
+  }
+
+  /**
+   * Returns a copy of {@code title.caseName.nodeKey} from the given fixture file, or
+   * {@link MissingNode} when the path does not exist (same as {@code JsonNode.path(...)}).
+   */
+  public static JsonNode get(String jsonPathFile, String title, String caseName, String nodeKey) {
+    return node(jsonPathFile, title, caseName, nodeKey).deepCopy();
+  }
+
+  public static JsonNode getResolvedRequest(String jsonPathFile, String title, String caseName) {
+    return getResolved(jsonPathFile, title, caseName, "request");
+  }
+
+  /**
+   * Same as {@link #get} with {@code ${VAR}} placeholders already replaced from
+   * {@link TestUtil#templateEnvironment()}.
+   */
+  public static JsonNode getResolved(String jsonPathFile, String title, String caseName, String nodeKey) {
+    Entry entry = entry(jsonPathFile, title, caseName, nodeKey);
+    if (entry == null) {
+      return MissingNode.getInstance();
+    }
+    return entry.plan.applyInPlace(entry.node.deepCopy(), TestUtil.templateEnvironment());
+  }
+
+  /**
+   * Compiled {@link ExpectationMatcher} for the resolved {@code title.caseName.response}, built on
+   * first use and shared afterwards.
+   */
+  public static ExpectationMatcher expectation(String jsonPathFile, String title, String caseName) {
+    Entry entry = entry(jsonPathFile, title, caseName, "response");
+    if (entry == null) {
+      return ExpectationMatcher.compile(MissingNode.getInstance());
+    }
+    ExpectationMatcher matcher = entry.matcher;
+    if (matcher == null) {
+      matcher = ExpectationMatcher.compile(
+          entry.plan.applyInPlace(entry.node.deepCopy(), TestUtil.templateEnvironment()));
+      entry.matcher = matcher;
+    }
+    return matcher;
+  }
+
+  /** Case names under {@code title}, in file order; empty when the title does not exist. */
+  public static List<String> caseNames(String jsonPathFile, String title) {
+    return file(jsonPathFile).cases.getOrDefault(title, Collections.emptyList());
+  }
+
+  /**
+   * Returns the shared, cached node without copying. Must be treated as read-only.
+   */
+  static JsonNode node(String jsonPathFile, String title, String caseName, String nodeKey) {
+    Entry entry = entry(jsonPathFile, title, caseName, nodeKey);
+    return entry != null ? entry.node : MissingNode.getInstance();
+  }
+
+  private static Entry entry(String jsonPathFile, String title, String caseName, String nodeKey) {
+    return file(jsonPathFile).entries.get(key(title, caseName, nodeKey));
+  }
+
+  private static FixtureFile file(String jsonPathFile) {
+    String path = normalize(jsonPathFile);
+    return FILES.computeIfAbsent(path, FixtureFile::load);
+  }
+
+  private static String normalize(String jsonPathFile) {
+    Path path = Paths.get(jsonPathFile).toAbsolutePath().normalize();
+    return path.toString();
+  }
+
+  private static String key(String title, String caseName, String nodeKey) {
+    return title + '\u0000' + caseName + '\u0000' + nodeKey;
+  }
+
+  private static final class FixtureFile {
+
+    private final Map<String, Entry> entries;
+    private final Map<String, List<String>> cases;
+
+    private FixtureFile(Map<String, Entry> entries, Map<String, List<String>> cases) {
+      this.entries = entries;
+      this.cases = cases;
+    }
+
+    private static FixtureFile load(String path) {
+      JsonNode root;
+      try {
+        root = objectMapper.readTree(Paths.get(path).toFile());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Error reading fixture file " + path + ": " + e.getMessage(), e);
+      }
+
+      Map<String, Entry> entries = new HashMap<>();
+      Map<String, List<String>> caseNames = new LinkedHashMap<>();
+      Iterator<Map.Entry<String, JsonNode>> titles = root.fields();
+      while (titles.hasNext()) {
+        Map.Entry<String, JsonNode> title = titles.next();
+        List<String> names = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> cases = title.getValue().fields();
+        while (cases.hasNext()) {
+          Map.Entry<String, JsonNode> caseEntry = cases.next();
+          names.add(caseEntry.getKey());
+          Iterator<Map.Entry<String, JsonNode>> parts = caseEntry.getValue().fields();
+          while (parts.hasNext()) {
+            Map.Entry<String, JsonNode> part = parts.next();
+            entries.put(key(title.getKey(), caseEntry.getKey(), part.getKey()),
+                new Entry(part.getValue(), TemplatePlan.compile(part.getValue())));
+          }
+        }
+        caseNames.put(title.getKey(), Collections.unmodifiableList(names));
+      }
+      return new FixtureFile(Collections.unmodifiableMap(entries), Collections.unmodifiableMap(caseNames));
+    }
+  }
+
+  private static final class Entry {
+
+    private final JsonNode node;
+    private final TemplatePlan plan;
+    private volatile ExpectationMatcher matcher;
+
+    private Entry(JsonNode node, TemplatePlan plan) {
+      this.node = node;
+      this.plan = plan;
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package id.dana.util;
+
+import id.dana.util.local.LocalSandbox;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+
+/**
+ * Single root {@link OkHttpClient} for the whole test JVM.
+ *
+ * <p>Per-test clients (custom headers, replaced bodies, {@code DanaAuth}) are derived through
+ * {@link #newBuilder()}, so they share one {@code ConnectionPool}, {@code Dispatcher} and TLS
+ * session cache instead of opening a fresh handshake to the sandbox for every
+ * {@code new OkHttpClient.Builder().build()}.
+ *
+ * <p>Every call made through it is timed phase by phase in {@link ApiTimings}, and a 401 that
+ * rejects a cached access token evicts it from {@link AccessTokenCache}.
+ *
+ * <p>Under {@code -Denv=LOCAL} the root client also carries {@link LocalSandbox#interceptor()}, so
+ * every derived client talks to the embedded stand-in server instead of the sandbox hosts.
+ */
+public final class HttpClientFactory {
+
+  private static final AtomicLong newConnections = new AtomicLong();
+  private static final AtomicLong reusedConnections = new AtomicLong();
+
+  private static final OkHttpClient ROOT = buildRoot();
+
+  private HttpClientFactory() {
+  }
+
+  private static OkHttpClient buildRoot() {
+    OkHttpClient.Builder builder = new OkHttpClient.Builder()
+        .eventListenerFactory(call -> new ConnectionCountingListener())
+        .addInterceptor(AccessTokenCache.evictRejected());
+    if (LocalSandbox.isEnabled()) {
+      builder.addInterceptor(LocalSandbox.interceptor());
+    }
+    return builder.build();
+  }
+
+  public static OkHttpClient root() {
+    return ROOT;
+  }
+
+  /**
+   * Builder derived from the root client; interceptors and timeouts added to it do not affect
+   * other clients, while the connection pool and dispatcher stay shared.
+   */
+  public static OkHttpClient.Builder newBuilder() {
+    return ROOT.newBuilder();
+  }
+
+  public static OkHttpClient withInterceptors(Interceptor... interceptors) {
+    OkHttpClient.Builder builder = newBuilder();
+    for (Interceptor interceptor : interceptors) {
+      builder.addInterceptor(interceptor);
+    }
+    return builder.build();
+  }
+
+  public static long newConnections() {
+    return newConnections.get();
+  }
+
+  public static long reusedConnections() {
+    return reusedConnections.get();
+  }
+
+  public static String connectionStats() {
+    long created = newConnections.get();
+    long reused = reusedConnections.get();
+    long total = created + reused;
+    long reuseRate = total == 0 ? 0 : (reused * 100) / total;
+    return String.format("connections acquired=%d new=%d reused=%d (%d%% reuse), pooled idle=%d",
+        total, created, reused, reuseRate, ROOT.connectionPool().idleConnectionCount());
+  }
+
+  /**
+   * A connection acquired without a preceding {@code connectStart} in the same call came from the
+   * pool. Phase timings are recorded by the {@link ApiTimings.Listener} it extends.
+   */
+  private static final class ConnectionCountingListener extends ApiTimings.Listener {
+
+    private boolean connecting;
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+      super.connectStart(call, inetSocketAddress, proxy);
+      connecting = true;
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+      super.connectionAcquired(call, connection);
+      if (connecting) {
+        newConnections.incrementAndGet();
+        connecting = false;
+      } else {
+        reusedConnections.incrementAndGet();
+      }
+    }
+  }
+}
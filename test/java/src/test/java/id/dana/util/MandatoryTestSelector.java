@@ -0,0 +1,124 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+/**
+ * Selects the mandatory Java tests straight from {@code resource/mandatory-tests.json}
+ * ({@code products.<module>.java[].class/methods}) as exact method selectors, so discovery only
+ * loads the listed classes instead of matching a long {@code -Dtest} pattern against every class
+ * on the test classpath, and the runners need no {@code jq} for it.
+ *
+ * <p>The file is {@code MANDATORY_TESTS_JSON} when set, otherwise the first
+ * {@code resource/mandatory-tests.json} found from the working directory upwards. Modules are the
+ * JSON keys ({@code payment_gateway}) or the Java package names ({@code paymentgateway}). Used by
+ * {@link RerunLauncher} for {@code @mandatory} / {@code @mandatory:<module>} selections.
+ */
+public final class MandatoryTestSelector {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final String JSON_PATH = "resource/mandatory-tests.json";
+
+  private static final Map<String, String> PACKAGE_TO_KEY = Collections.singletonMap("paymentgateway", "payment_gateway");
+
+  private MandatoryTestSelector() {
+  }
+
+  /** Discovery request for the mandatory tests of {@code modules}; all products when empty. */
+  public static LauncherDiscoveryRequest request(Collection<String> modules) {
+    return LauncherDiscoveryRequestBuilder.request().selectors(selectors(modules)).build();
+  }
+
+  /** One method selector per listed test method of {@code modules}; all products when empty. */
+  public static List<DiscoverySelector> selectors(Collection<String> modules) {
+    JsonNode products = read(path()).path("products");
+    List<String> keys = new ArrayList<>();
+    if (modules.isEmpty()) {
+      products.fieldNames().forEachRemaining(keys::add);
+    } else {
+      for (String module : modules) {
+        keys.add(PACKAGE_TO_KEY.getOrDefault(module, module));
+      }
+    }
+
+    List<DiscoverySelector> selectors = new ArrayList<>();
+    for (String key : keys) {
+      JsonNode product = products.path(key);
+      if (product.isMissingNode()) {
+        throw new IllegalArgumentException("No product '" + key + "' in " + JSON_PATH);
+      }
+      for (JsonNode entry : product.path("java")) {
+        Class<?> testClass = load(entry.path("class").asText());
+        for (JsonNode method : entry.path("methods")) {
+          for (Method candidate : methods(testClass, method.asText())) {
+            selectors.add(DiscoverySelectors.selectMethod(testClass, candidate));
+          }
+        }
+      }
+    }
+    return selectors;
+  }
+
+  /** {@code MANDATORY_TESTS_JSON}, or {@code resource/mandatory-tests.json} above the working directory. */
+  static Path path() {
+    String configured = ConfigUtil.getConfig("MANDATORY_TESTS_JSON", "");
+    if (!configured.isEmpty() && Files.isRegularFile(Paths.get(configured))) {
+      return Paths.get(configured);
+    }
+    for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+      Path candidate = dir.resolve(JSON_PATH);
+      if (Files.isRegularFile(candidate)) {
+        return candidate;
+      }
+    }
+    throw new IllegalStateException(JSON_PATH + " not found above " + Paths.get("").toAbsolutePath()
+        + " (set MANDATORY_TESTS_JSON)");
+  }
+
+  private static JsonNode read(Path path) {
+    try {
+      return objectMapper.readTree(path.toFile());
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read " + path, e);
+    }
+  }
+
+  private static Class<?> load(String className) {
+    try {
+      return Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+    } catch (ClassNotFoundException e) {
+      throw new IllegalArgumentException("Mandatory test class not found: " + className, e);
+    }
+  }
+
+  /** Methods named {@code name} declared by {@code testClass} or a superclass, overloads included. */
+  private static List<Method> methods(Class<?> testClass, String name) {
+    List<Method> found = new ArrayList<>();
+    for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (method.getName().equals(name) && !method.isSynthetic()) {
+          found.add(method);
+        }
+      }
+      if (!found.isEmpty()) {
+        return found;
+      }
+    }
+    throw new IllegalArgumentException("Mandatory test method not found: " + testClass.getName() + "#" + name);
+  }
+}
@@ -3,6 +3,8 @@ package id.dana.util;
 import com.microsoft.playwright.*;
 import com.microsoft.playwright.assertions.LocatorAssertions;
 import com.microsoft.playwright.impl.AssertionsTimeout;
+import com.microsoft.playwright.options.WaitUntilState;
+import id.dana.util.local.LocalSandbox;
 import id.dana.widget.ApplyToken;
 import id.dana.widget.GetOauthUrl;
 import io.restassured.builder.RequestSpecBuilder;
@@ -24,10 +26,8 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Paths;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.*;
 
@@ -38,6 +38,7 @@ public class OauthUtil {
     private final static String DEFAULT_USER_PIN = "123321";
     private final static String DEFAULT_USER_PHONENUMBER = "0811742234";
     private static final Logger log = LoggerFactory.getLogger(TestUtil.class);
+    private static final String SCOPES = "DEFAULT_BASIC_PROFILE,QUERY_BALANCE,CASHIER,MINI_DANA";
     public static String generateSeamlessData(
             String phoneNumber,
             String bizScenario,
@@ -66,41 +67,18 @@ public class OauthUtil {
             SignatureException,
             InvalidKeyException {
 
-        String privateKey = ConfigUtil.getConfig("PRIVATE_KEY", "");
-        String signResult = sign(
-                seamlessData,
-                privateKey);
+        String signResult = RsaSigner.sign(seamlessData);
 
         return URLEncoder.encode(
                 signResult,
                 String.valueOf(StandardCharsets.UTF_8));
     }
 
-    private static String sign(String textPayload, String privateKeyMerchant)
-            throws NoSuchAlgorithmException,
-            InvalidKeySpecException,
-            SignatureException,
-            InvalidKeyException {
-
-        PrivateKey privateKeyObject = getPrivateKey(privateKeyMerchant);
-        Signature signatureProcessor = Signature.getInstance("SHA256withRSA");
-        signatureProcessor.initSign(privateKeyObject);
-        signatureProcessor.update(textPayload.getBytes());
-
-        byte[] signature = signatureProcessor.sign();
-
-        return new String(Base64.getEncoder().encode(signature));
-    }
-
     public static PrivateKey getPrivateKey(String privateKeyMerchant)
             throws NoSuchAlgorithmException,
             InvalidKeySpecException {
 
-        byte[] key = Base64.getDecoder().decode(privateKeyMerchant.getBytes());
-        PKCS8EncodedKeySpec pkcs8EncodedKeySpec = new PKCS8EncodedKeySpec(key);
-        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-
-        return keyFactory.generatePrivate(pkcs8EncodedKeySpec);
+        return RsaSigner.privateKey(privateKeyMerchant);
     }
 
     public static String generateRedirectLinkAuthCode(
@@ -157,7 +135,7 @@ public class OauthUtil {
         String urlRedirectAuth = OauthUtil.generateRedirectLinkAuthCode(
                 partnerId,
                 channelId,
-                "DEFAULT_BASIC_PROFILE,QUERY_BALANCE,CASHIER,MINI_DANA",
+                SCOPES,
                 "https://google.com",
                 seamlessData,
                 seamlessSign
@@ -167,14 +145,18 @@ public class OauthUtil {
     }
 
     public static String getOauthViaView(String urlRedirectLinkAuthCode, String phoneNumber, String pin) {
-        try (Playwright playwright = Playwright.create()) {
-            Browser browser = playwright.webkit().launch();
-            playwright.firefox().launch(new BrowserType.LaunchOptions().setHeadless(false));
-            Page page = browser.newPage();
+        if (LocalSandbox.isEnabled()) {
+            return LocalSandbox.authorize(urlRedirectLinkAuthCode);
+        }
+        try (BrowserPool.Session session = BrowserPool.open()) {
+            BrowserRouteFilter.RedirectCapture redirect =
+                    BrowserRouteFilter.captureRedirect(session.context(), "https://google.com");
+            Page page = session.page();
 //            Redirect to page login user with phone number
             page.navigate(urlRedirectLinkAuthCode);
 
-            Thread.sleep(5000); // Wait for the page to load
+            // Wait for the login form instead of a fixed delay
+            page.locator("//*[contains(@class,\"agreement__button\")]//button").waitFor();
 
 //            Do action input phone number
             if (page.locator("//*[contains(@class,\"desktop-input\")]//input").isVisible())
@@ -184,21 +166,13 @@ public class OauthUtil {
 //            Input pin user
             page.locator("//*[contains(@class,\"input-pin\")]//input").fill(pin);
 
-//            wait until google page visible
-            page.locator("//*[contains(@action,\"/search\")]").waitFor();
-            page.locator("//*[contains(@action,\"/search\")]").isVisible();
+//            Wait for the redirect to google; it is answered locally, google itself is never loaded
+            page.waitForURL(redirect::matches, new Page.WaitForURLOptions()
+                    .setWaitUntil(WaitUntilState.COMMIT));
 
-            page.screenshot(new Page.ScreenshotOptions().setPath(Paths.get("example.png")));
-
-            String currentUrl = page.url();
-            String tempCurrentUrl = currentUrl
-                    .replace("https://www.google.com/?","");
-
-            authCode = tempCurrentUrl.split("authCode=")[1].split("&")[0];
+            authCode = redirect.requireQueryParam("authCode", page.url());
 
             log.info("Auth Code: {}", authCode);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
         }
         return authCode;
     }
@@ -210,13 +184,10 @@ public class OauthUtil {
             SignatureException,
             InvalidKeyException {
 
-        authCode = OauthUtil.getAuthCode(
-                ConfigUtil.getConfig("X_PARTNER_ID", ""),
-                ConfigUtil.getConfig("X_PARTNER_ID", ""),
-                phoneNumberUser,
-                pinUser);
-
-        String accessToken = ApplyToken.applyToken(authCode);
-        return accessToken;
+        String partnerId = ConfigUtil.getConfig("X_PARTNER_ID", "");
+        return AccessTokenCache.accessToken(partnerId, SCOPES, phoneNumberUser, () -> {
+            authCode = OauthUtil.getAuthCode(partnerId, partnerId, phoneNumberUser, pinUser);
+            return ApplyToken.applyTokenForCache(authCode);
+        });
     }
 }
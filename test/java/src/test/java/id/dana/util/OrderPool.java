@@ -0,0 +1,406 @@
+package id.dana.util;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM-wide pool of sandbox orders prepared ahead of the tests that use them, so a suite's
+ * {@code @BeforeAll} (or its first {@code @Retry} attempt) no longer creates, pays and cancels its
+ * orders one after another.
+ *
+ * <pre>
+ * &#64;OrderPool.Provision(state = OrderPool.State.INIT, recipe = "createOrder")
+ * &#64;OrderPool.Provision(state = OrderPool.State.CANCELLED, recipe = "cancelOrder")
+ * class QueryOrderTest {
+ *   &#64;BeforeAll
+ *   static void setUp() {
+ *     partnerReferenceNoInit = OrderPool.take(QueryOrderTest.class, OrderPool.State.INIT);
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>A recipe is a static no-argument method of the suite that returns the
+ * {@code partnerReferenceNo}, or the {@code [partnerReferenceNo, webRedirectUrl]} list the order
+ * helpers return, so each suite keeps its own fixtures. API-only states of every class in the test
+ * plan are prepared when the plan starts, on {@code ORDER_POOL_THREADS} threads (default 4). Paid
+ * states check out as the sandbox user, so they are prepared one at a time, only while their suite
+ * runs and holds {@code @ResourceLock(SandboxResources.OAUTH_USER)}, in the background of its first
+ * tests; the class does not finish before they have. Suites take paid orders inside the test
+ * methods that use them ({@code takenBy}), so the other tests run while the checkout completes.
+ * Nothing is prepared for a provision whose taking tests are not in the plan. Suites without that
+ * lock get no paid orders prepared. {@link #take} waits for a prepared order; once the declared {@code count} is used up (a {@code @Retry} attempt, a rerun), the preparation failed or
+ * the order is older than {@code ORDER_POOL_MAX_AGE_SECONDS} (default 300), it runs the recipe
+ * on the calling thread instead, so failures surface in the test that needed the order.
+ * {@code ORDER_POOL=false} turns preparation off.
+ *
+ * <p>Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}.
+ */
+public class OrderPool implements TestExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(OrderPool.class);
+
+  private static final boolean ENABLED = Boolean.parseBoolean(ConfigUtil.getConfig("ORDER_POOL", "true"));
+
+  private static final int THREADS = Math.max(1, Integer.parseInt(ConfigUtil.getConfig("ORDER_POOL_THREADS", "4")));
+
+  private static final long MAX_AGE_NANOS =
+      TimeUnit.SECONDS.toNanos(Long.parseLong(ConfigUtil.getConfig("ORDER_POOL_MAX_AGE_SECONDS", "300")));
+
+  private static final Map<Key, Queue<CompletableFuture<Prepared>>> PREPARED = new ConcurrentHashMap<>();
+
+  /** Test methods of each class in the running plan, by class name. */
+  private static volatile Map<String, Set<String>> plannedMethods = new ConcurrentHashMap<>();
+
+  private static ExecutorService apiExecutor;
+
+  private static ExecutorService paymentExecutor;
+
+  /** State of a handed-out order. */
+  public enum State {
+    /** Created, not paid. */
+    INIT(false),
+    /** Paid, for queries. */
+    PAID(true),
+    /** Created and cancelled. */
+    CANCELLED(false),
+    /** Paid, for a test that refunds it. */
+    REFUNDABLE(true);
+
+    private final boolean paid;
+
+    State(boolean paid) {
+      this.paid = paid;
+    }
+  }
+
+  /** One kind of order a suite takes from the pool. */
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.TYPE)
+  @Repeatable(Provisions.class)
+  public @interface Provision {
+    State state();
+
+    /** Static no-argument method of the suite that creates the order. */
+    String recipe();
+
+    /** Orders prepared ahead; further {@link #take}s create theirs on the spot. */
+    int count() default 1;
+
+    /**
+     * Test methods that take the order themselves; empty when the suite takes it in
+     * {@code @BeforeAll}. Orders are only prepared for the ones the test plan runs.
+     */
+    String[] takenBy() default {};
+  }
+
+  @Retention(RetentionPolicy.RUNTIME)
+  @Target(ElementType.TYPE)
+  public @interface Provisions {
+    Provision[] value();
+  }
+
+  /** An order in {@code state} from the only recipe {@code suite} declares for it. */
+  public static String take(Class<?> suite, State state) {
+    return take(suite, state, null);
+  }
+
+  /** An order in {@code state} from {@code recipe}, for suites declaring more than one recipe per state. */
+  public static String take(Class<?> suite, State state, String recipe) {
+    Provision provision = provision(suite, state, recipe);
+    Queue<CompletableFuture<Prepared>> queue = PREPARED.get(new Key(suite, provision.recipe()));
+    CompletableFuture<Prepared> next = queue == null ? null : queue.poll();
+    if (next != null) {
+      try {
+        Prepared prepared = next.get();
+        if (System.nanoTime() - prepared.createdNanos <= MAX_AGE_NANOS) {
+          return prepared.partnerReferenceNo;
+        }
+        log.info("[ORDER_POOL] {} {} order {} is too old; creating a new one",
+            suite.getSimpleName(), state, prepared.partnerReferenceNo);
+      } catch (ExecutionException e) {
+        log.warn("[ORDER_POOL] Preparing {} {} order failed ({}); creating it now",
+            suite.getSimpleName(), state, e.getCause().toString());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted waiting for a " + state + " order", e);
+      }
+    }
+    return create(suite, provision);
+  }
+
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+    if (!ENABLED) {
+      return;
+    }
+    Map<String, Set<String>> methods = new ConcurrentHashMap<>();
+    Deque<TestIdentifier> pending = new ArrayDeque<>(testPlan.getRoots());
+    while (!pending.isEmpty()) {
+      TestIdentifier identifier = pending.pop();
+      TestSource source = identifier.getSource().orElse(null);
+      if (source instanceof MethodSource) {
+        methods.computeIfAbsent(((MethodSource) source).getClassName(), k -> ConcurrentHashMap.newKeySet())
+            .add(((MethodSource) source).getMethodName());
+      }
+      pending.addAll(testPlan.getChildren(identifier));
+    }
+    plannedMethods = methods;
+    for (String className : methods.keySet()) {
+      Class<?> suite;
+      try {
+        suite = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+      } catch (ClassNotFoundException e) {
+        continue;
+      }
+      for (Provision provision : suite.getAnnotationsByType(Provision.class)) {
+        if (!provision.state().paid) {
+          prepare(suite, provision);
+        }
+      }
+    }
+  }
+
+  /** A suite starts holding its resource locks: prepare its paid orders now. */
+  @Override
+  public void executionStarted(TestIdentifier testIdentifier) {
+    Class<?> suite = ENABLED ? suiteOf(testIdentifier) : null;
+    if (suite == null) {
+      return;
+    }
+    boolean locked = holdsOauthUser(suite);
+    for (Provision provision : suite.getAnnotationsByType(Provision.class)) {
+      if (!provision.state().paid) {
+        continue;
+      }
+      if (locked) {
+        prepare(suite, provision);
+      } else {
+        log.warn("[ORDER_POOL] {} does not hold @ResourceLock({}); its {} orders are created in the test",
+            suite.getSimpleName(), SandboxResources.OAUTH_USER, provision.state());
+      }
+    }
+  }
+
+  /** Paid preparation never outlives the suite's lock: wait for it and drop what was not taken. */
+  @Override
+  public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+    Class<?> suite = ENABLED ? suiteOf(testIdentifier) : null;
+    if (suite == null) {
+      return;
+    }
+    for (Provision provision : suite.getAnnotationsByType(Provision.class)) {
+      if (!provision.state().paid) {
+        continue;
+      }
+      Queue<CompletableFuture<Prepared>> queue = PREPARED.get(new Key(suite, provision.recipe()));
+      CompletableFuture<Prepared> next;
+      while (queue != null && (next = queue.poll()) != null) {
+        try {
+          log.info("[ORDER_POOL] {} {} order {} was not taken", suite.getSimpleName(), provision.state(),
+              next.get().partnerReferenceNo);
+        } catch (ExecutionException e) {
+          // Not taken, so nobody needed it
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private static Class<?> suiteOf(TestIdentifier testIdentifier) {
+    TestSource source = testIdentifier.getSource().orElse(null);
+    if (!(source instanceof ClassSource)) {
+      return null;
+    }
+    try {
+      Class<?> suite = Class.forName(((ClassSource) source).getClassName(), false,
+          Thread.currentThread().getContextClassLoader());
+      return suite.getAnnotationsByType(Provision.class).length == 0 ? null : suite;
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+
+  private static boolean holdsOauthUser(Class<?> suite) {
+    for (ResourceLock lock : suite.getAnnotationsByType(ResourceLock.class)) {
+      if (SandboxResources.OAUTH_USER.equals(lock.value())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tops the prepared orders of {@code provision} up to what the plan still needs: its
+   * {@code count}, at most one per planned {@code takenBy} method, none when the plan runs no test of
+   * the suite that takes it (e.g. an in-JVM rerun of another method).
+   */
+  private static void prepare(Class<?> suite, Provision provision) {
+    int wanted = wanted(suite, provision);
+    if (wanted == 0) {
+      return;
+    }
+    Queue<CompletableFuture<Prepared>> queue =
+        PREPARED.computeIfAbsent(new Key(suite, provision.recipe()), k -> new ConcurrentLinkedQueue<>());
+    ExecutorService executor = executor(provision.state());
+    int missing = wanted - queue.size();
+    for (int i = 0; i < missing; i++) {
+      queue.add(CompletableFuture.supplyAsync(() -> TestCaseContext.callAs(suite.getName(),
+          () -> new Prepared(create(suite, provision), System.nanoTime())), executor));
+    }
+    if (missing > 0) {
+      log.info("[ORDER_POOL] Preparing {} {} order(s) for {}", missing, provision.state(), suite.getSimpleName());
+    }
+  }
+
+  private static int wanted(Class<?> suite, Provision provision) {
+    Set<String> methods = plannedMethods.get(suite.getName());
+    if (methods == null || methods.isEmpty()) {
+      return 0;
+    }
+    if (provision.takenBy().length == 0) {
+      return provision.count();
+    }
+    int planned = 0;
+    for (String method : provision.takenBy()) {
+      if (methods.contains(method)) {
+        planned++;
+      }
+    }
+    return Math.min(provision.count(), planned);
+  }
+
+  private static String create(Class<?> suite, Provision provision) {
+    Object order;
+    try {
+      Method recipe = suite.getDeclaredMethod(provision.recipe());
+      recipe.setAccessible(true);
+      order = recipe.invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalArgumentException("No static no-argument recipe " + suite.getName() + "#"
+          + provision.recipe(), e);
+    } catch (InvocationTargetException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Recipe " + suite.getSimpleName() + "#" + provision.recipe() + " failed", cause);
+    }
+    if (order instanceof List && !((List<?>) order).isEmpty()) {
+      order = ((List<?>) order).get(0);
+    }
+    if (!(order instanceof String)) {
+      throw new IllegalStateException("Recipe " + suite.getSimpleName() + "#" + provision.recipe()
+          + " returned no partnerReferenceNo: " + order);
+    }
+    return (String) order;
+  }
+
+  private static Provision provision(Class<?> suite, State state, String recipe) {
+    Provision found = null;
+    for (Provision provision : suite.getAnnotationsByType(Provision.class)) {
+      if (provision.state() != state || (recipe != null && !recipe.equals(provision.recipe()))) {
+        continue;
+      }
+      if (found != null) {
+        throw new IllegalArgumentException(suite.getName() + " declares more than one " + state
+            + " recipe; name the one to take");
+      }
+      found = provision;
+    }
+    if (found == null) {
+      throw new IllegalArgumentException(suite.getName() + " declares no @OrderPool.Provision for " + state
+          + (recipe == null ? "" : " from " + recipe));
+    }
+    return found;
+  }
+
+  private static synchronized ExecutorService executor(State state) {
+    if (state.paid) {
+      if (paymentExecutor == null) {
+        paymentExecutor = Executors.newSingleThreadExecutor(daemon("order-pool-payment-"));
+      }
+      return paymentExecutor;
+    }
+    if (apiExecutor == null) {
+      apiExecutor = Executors.newFixedThreadPool(THREADS, daemon("order-pool-"));
+    }
+    return apiExecutor;
+  }
+
+  private static ThreadFactory daemon(String prefix) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static final class Prepared {
+
+    private final String partnerReferenceNo;
+    private final long createdNanos;
+
+    private Prepared(String partnerReferenceNo, long createdNanos) {
+      this.partnerReferenceNo = partnerReferenceNo;
+      this.createdNanos = createdNanos;
+    }
+  }
+
+  private static final class Key {
+
+    private final Class<?> suite;
+    private final String recipe;
+
+    private Key(Class<?> suite, String recipe) {
+      this.suite = suite;
+      this.recipe = recipe;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Key && ((Key) other).suite == suite && ((Key) other).recipe.equals(recipe);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(suite, recipe);
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package id.dana.util;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Run-level performance report: for every test method (and every test class, whose wall time
+ * includes its {@code @BeforeAll} setup) how the time was spent, so the scenarios that dominate a
+ * run stand out. A {@code @Retry} method's row sums its attempts; the template container around
+ * them is not counted again.
+ *
+ * <p>Per row: wall time, time in API calls ({@link ApiTimings}), time slept in polls and retries
+ * ({@link Await}, {@link RetryTestUtil.Retry}), time in browser checkout and OAuth flows,
+ * retry attempts and the {@code [REF] partnerReferenceNo} values logged while it ran (captured by
+ * {@link RefLogAppender}). Written next to the surefire XML as {@code perf-report.json} and
+ * {@code perf-report.html} in {@code target/} ({@code -Dperf.report.dir=<dir>}).
+ *
+ * <p>Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener};
+ * the files are written by {@link RunSummaryListener}.
+ */
+public class PerfReport implements TestExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(PerfReport.class);
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static final String DIR_PROPERTY = "perf.report.dir";
+
+  private static final String DEFAULT_DIR = "target";
+
+  private static final Map<String, Row> ROWS = new ConcurrentHashMap<>();
+
+  private static final Map<String, Long> STARTED = new ConcurrentHashMap<>();
+
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+    ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+    if (loggerFactory instanceof LoggerContext) {
+      RefLogAppender.install((LoggerContext) loggerFactory);
+    }
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier testIdentifier) {
+    if (TestCaseContext.nameOf(testIdentifier) != null && !TestCaseContext.isTemplate(testIdentifier)) {
+      STARTED.put(testIdentifier.getUniqueId(), System.nanoTime());
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+    Long start = STARTED.remove(testIdentifier.getUniqueId());
+    String name = TestCaseContext.nameOf(testIdentifier);
+    if (start == null || name == null) {
+      return;
+    }
+    Row row = row(name);
+    row.kind = testIdentifier.isTest() ? "test" : "class";
+    row.invocations.incrementAndGet();
+    row.wallMicros.addAndGet((System.nanoTime() - start) / 1_000);
+    // A test's latest attempt decides (earlier @Retry attempts end aborted); a class keeps any failure
+    if (testIdentifier.isTest() || testExecutionResult.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+      row.status = testExecutionResult.getStatus().name();
+    }
+  }
+
+  /** Time spent in a browser checkout/OAuth flow by the current test. */
+  public static void browser(long nanos) {
+    row(TestCaseContext.current()).browserMicros.addAndGet(nanos / 1_000);
+  }
+
+  /** A sleep outside {@link Await}, e.g. between retries. */
+  public static void slept(long millis) {
+    row(TestCaseContext.current()).sleptMicros.addAndGet(millis * 1_000);
+  }
+
+  /** One more attempt of the current test by {@link RetryTestUtil.Retry}. */
+  public static void retried() {
+    row(TestCaseContext.current()).retries.incrementAndGet();
+  }
+
+  static void reference(String partnerReferenceNo) {
+    row(TestCaseContext.current()).references.add(partnerReferenceNo);
+  }
+
+  /** Rows so far, API and polling time filled in, slowest wall time first. */
+  public static List<Map<String, Object>> rows() {
+    Map<String, long[]> api = new HashMap<>();
+    for (ApiTimings.CallRecord call : ApiTimings.recorded()) {
+      long[] totals = api.computeIfAbsent(call.getTest(), k -> new long[2]);
+      totals[0]++;
+      totals[1] += call.getPhases().get(ApiTimings.Phase.TOTAL);
+    }
+    Map<String, Long> polls = new HashMap<>();
+    for (Await.Record wait : Await.recorded()) {
+      polls.merge(wait.getTest(), wait.getSleptMs() * 1_000, Long::sum);
+    }
+    for (String test : api.keySet()) {
+      row(test);
+    }
+    for (String test : polls.keySet()) {
+      row(test);
+    }
+
+    List<Map<String, Object>> rows = new ArrayList<>();
+    ROWS.forEach((name, row) -> {
+      long[] calls = api.getOrDefault(name, new long[2]);
+      Map<String, Object> out = new LinkedHashMap<>();
+      out.put("name", TestCaseContext.displayName(name));
+      out.put("kind", row.kind);
+      out.put("status", row.status);
+      out.put("invocations", row.invocations.get());
+      out.put("wallMs", row.wallMicros.get() / 1_000);
+      out.put("apiCalls", calls[0]);
+      out.put("apiMs", calls[1] / 1_000);
+      out.put("sleepMs", (polls.getOrDefault(name, 0L) + row.sleptMicros.get()) / 1_000);
+      out.put("browserMs", row.browserMicros.get() / 1_000);
+      out.put("retries", row.retries.get());
+      out.put("references", new ArrayList<>(row.references));
+      rows.add(out);
+    });
+    rows.sort((a, b) -> Long.compare((Long) b.get("wallMs"), (Long) a.get("wallMs")));
+    return rows;
+  }
+
+  /** Writes {@code perf-report.json} and {@code perf-report.html}; returns the JSON file or {@code null}. */
+  public static Path write() {
+    List<Map<String, Object>> rows = rows();
+    if (rows.isEmpty()) {
+      return null;
+    }
+    Path dir = Paths.get(System.getProperty(DIR_PROPERTY, DEFAULT_DIR)).toAbsolutePath();
+    Path json = dir.resolve("perf-report.json");
+    try {
+      Files.createDirectories(dir);
+      Map<String, Object> report = new LinkedHashMap<>();
+      report.put("api", ApiTimings.summary());
+      report.put("polling", Await.summary());
+      report.put("rows", rows);
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(json.toFile(), report);
+      Files.write(dir.resolve("perf-report.html"), html(rows).getBytes(StandardCharsets.UTF_8));
+      log.info("Performance report written to {}", json);
+      return json;
+    } catch (IOException e) {
+      log.warn("Could not write performance report to {}: {}", dir, e.getMessage());
+      return null;
+    }
+  }
+
+  private static String html(List<Map<String, Object>> rows) {
+    StringBuilder html = new StringBuilder()
+        .append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Java test performance</title>\n")
+        .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+        .append("td,th{border:1px solid #ccc;padding:2px 6px;text-align:right}")
+        .append("td:first-child,th:first-child,td:last-child{text-align:left}")
+        .append("tr.class{background:#f3f3f3}tr.FAILED{color:#b00}</style></head><body>\n")
+        .append("<h1>Java test performance</h1>\n<p>").append(escape(ApiTimings.summary()))
+        .append("<br>").append(escape(Await.summary())).append("</p>\n<table>\n")
+        .append("<tr><th>Test</th><th>Kind</th><th>Status</th><th>Runs</th><th>Wall ms</th>")
+        .append("<th>API calls</th><th>API ms</th><th>Sleep ms</th><th>Browser ms</th>")
+        .append("<th>Retries</th><th>partnerReferenceNo</th></tr>\n");
+    for (Map<String, Object> row : rows) {
+      html.append("<tr class=\"").append(row.get("kind")).append(' ').append(row.get("status")).append("\">");
+      for (String column : new String[] {"name", "kind", "status", "invocations", "wallMs", "apiCalls",
+          "apiMs", "sleepMs", "browserMs", "retries"}) {
+        html.append("<td>").append(escape(String.valueOf(row.get(column)))).append("</td>");
+      }
+      html.append("<td>").append(escape(String.join(", ", castList(row.get("references")))))
+          .append("</td></tr>\n");
+    }
+    return html.append("</table>\n</body></html>\n").toString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> castList(Object value) {
+    return (List<String>) value;
+  }
+
+  private static String escape(String text) {
+    return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+  }
+
+  private static Row row(String name) {
+    return ROWS.computeIfAbsent(name, k -> new Row());
+  }
+
+  private static final class Row {
+
+    private volatile String kind = "other";
+    private volatile String status = "SUCCESSFUL";
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong wallMicros = new AtomicLong();
+    private final AtomicLong sleptMicros = new AtomicLong();
+    private final AtomicLong browserMicros = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final Set<String> references = new ConcurrentSkipListSet<>();
+  }
+}
@@ -0,0 +1,44 @@
+package id.dana.util;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logback appender that picks the {@code partnerReferenceNo} out of the tests' {@code [REF]} log
+ * lines and hands it to {@link PerfReport} for the test running on the logging thread. Attached to
+ * the root logger by {@link PerfReport} at the start of the run; it writes nothing itself.
+ */
+public class RefLogAppender extends AppenderBase<ILoggingEvent> {
+
+  private static final String NAME = "perf-report-ref";
+
+  private static final Pattern REFERENCE = Pattern.compile("partnerReferenceNo=(\\S+)");
+
+  static void install(LoggerContext context) {
+    Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    if (root.getAppender(NAME) != null) {
+      return;
+    }
+    RefLogAppender appender = new RefLogAppender();
+    appender.setName(NAME);
+    appender.setContext(context);
+    appender.start();
+    root.addAppender(appender);
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    String message = event.getFormattedMessage();
+    if (message == null || !message.startsWith("[REF]")) {
+      return;
+    }
+    Matcher matcher = REFERENCE.matcher(message);
+    if (matcher.find()) {
+      PerfReport.reference(matcher.group(1));
+    }
+  }
+}
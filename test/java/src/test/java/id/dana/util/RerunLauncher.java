@@ -0,0 +1,507 @@
+package id.dana.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.discovery.ClassNameFilter;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a test selection through the JUnit Platform {@link Launcher} and reruns only the failed
+ * tests in the same JVM, instead of relaunching Maven for every retry attempt. The warm JVM keeps
+ * {@link DanaBootstrap}'s clients, their connection pools, {@link AccessTokenCache} and the
+ * browser pool between attempts, and a retry costs the failed tests' time plus the backoff only.
+ *
+ * <p>The selection uses the Surefire {@code -Dtest} syntax the runners already build
+ * ({@code Class#m1+m2,id.dana.pg.*Test}; simple class names match in any package, {@code *} is a
+ * wildcard); no argument runs every {@code *Test}/{@code *Tests} class. {@code @mandatory} or
+ * {@code @mandatory:<module>,...} selects exactly the methods listed in
+ * {@code resource/mandatory-tests.json} through {@link MandatoryTestSelector}. Failed tests are
+ * rerun by unique id: a failed {@code @BeforeAll} reruns its class, a failed parameterized or
+ * {@link RetryTestUtil.Retry} invocation its test method. Up to {@code RETRY_MAX_ATTEMPTS} (default 5) attempts; only
+ * failures {@link RetryCoordinator} classifies as transient are rerun, after its backoff from
+ * {@code RETRY_INITIAL_DELAY_SECONDS} (default 10) and within its run-wide retry budget.
+ *
+ * <p>The final outcome of every test is written as Surefire-style {@code TEST-<class>.xml} to
+ * {@code target/surefire-reports} ({@code -Dsurefire.reports.dir=<dir>}) so the runners' summary
+ * and failure extraction work unchanged. Exits {@code 0} when everything passed in the end.
+ */
+public final class RerunLauncher {
+
+  private static final Logger log = LoggerFactory.getLogger(RerunLauncher.class);
+
+  private static final String REPORTS_PROPERTY = "surefire.reports.dir";
+
+  private static final String DEFAULT_REPORTS = "target/surefire-reports";
+
+  private static final String BASE_PACKAGE = "id.dana";
+
+  private static final String MANDATORY = "@mandatory";
+
+  private RerunLauncher() {
+  }
+
+  public static void main(String[] args) {
+    String selection = args.length > 0 ? args[0].trim() : "";
+    int exitCode;
+    try {
+      exitCode = run(selection);
+    } catch (RuntimeException e) {
+      log.error("In-JVM test run failed: {}", e.toString(), e);
+      exitCode = 2;
+    }
+    // Browser and executor threads must not keep the JVM alive after the last attempt.
+    System.exit(exitCode);
+  }
+
+  /** Runs {@code selection} with retries; returns the process exit code. */
+  public static int run(String selection) {
+    int maxAttempts = maxAttempts();
+    Outcomes outcomes = new Outcomes();
+    try (LauncherSession session = LauncherFactory.openSession()) {
+      Launcher launcher = session.getLauncher();
+      LauncherDiscoveryRequest request = initialRequest(selection);
+      for (int attempt = 1; ; attempt++) {
+        log.info(attempt == 1 ? "Attempt {}/{} (full selection)" : "Attempt {}/{} (failed tests only)",
+            attempt, maxAttempts);
+        Attempt result = new Attempt();
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        launcher.execute(request, outcomes, result, summary);
+        summary.getSummary().printTo(new PrintWriter(System.out, true));
+
+        if (attempt == 1 && summary.getSummary().getTestsFoundCount() == 0 && !selection.isEmpty()) {
+          log.error("No tests matched {}", selection);
+          return 1;
+        }
+        if (result.failed.isEmpty() && !result.unattributed) {
+          break;
+        }
+        if (attempt >= maxAttempts) {
+          break;
+        }
+        if (result.unattributed) {
+          log.warn("Could not determine failed tests for retry; stopping.");
+          break;
+        }
+
+        Set<String> retryable = new LinkedHashSet<>();
+        long delay = 0;
+        long baseMillis = seconds("RETRY_INITIAL_DELAY_SECONDS", 10) * 1_000;
+        for (Map.Entry<String, RetryCoordinator.Kind> failure : result.failed.entrySet()) {
+          if (failure.getValue().isRetryable()) {
+            retryable.add(failure.getKey());
+            delay = Math.max(delay, RetryCoordinator.backoffMillis(failure.getValue(), attempt, baseMillis,
+                result.names.get(failure.getKey())));
+          }
+        }
+        if (retryable.isEmpty()) {
+          log.warn("Only assertion or setup failures left; not retrying.");
+          break;
+        }
+        if (!RetryCoordinator.acquire(delay)) {
+          break;
+        }
+        List<String> failed = outermost(retryable);
+        log.info("Retrying transient failures only: {}", failed);
+        request = LauncherDiscoveryRequestBuilder.request()
+            .selectors(failed.stream().map(DiscoverySelectors::selectUniqueId).collect(Collectors.toList()))
+            .build();
+        log.info("Attempt {} failed; sleeping {} ms before retry...", attempt, delay);
+        sleep(delay);
+      }
+    }
+    outcomes.write(Paths.get(System.getProperty(REPORTS_PROPERTY, DEFAULT_REPORTS)));
+    return outcomes.anyFailed() ? 1 : 0;
+  }
+
+  /** Same rules as {@code resolve_retry_max_attempts}: non-numeric or below 2 means 5. */
+  static int maxAttempts() {
+    String value = ConfigUtil.getConfig("RETRY_MAX_ATTEMPTS", "5").trim();
+    try {
+      int max = Integer.parseInt(value);
+      return max < 2 ? 5 : max;
+    } catch (NumberFormatException e) {
+      return 5;
+    }
+  }
+
+  private static long seconds(String key, long defaultValue) {
+    try {
+      return Long.parseLong(ConfigUtil.getConfig(key, String.valueOf(defaultValue)).trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the next attempt", e);
+    }
+  }
+
+  /** Discovery request for a Surefire-style {@code -Dtest} value or {@code @mandatory} entries. */
+  static LauncherDiscoveryRequest initialRequest(String selection) {
+    List<String> mandatoryModules = mandatoryModules(selection);
+    if (mandatoryModules != null) {
+      return MandatoryTestSelector.request(mandatoryModules);
+    }
+    LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request()
+        .selectors(DiscoverySelectors.selectPackage(BASE_PACKAGE));
+    if (selection.isEmpty()) {
+      return builder.filters(ClassNameFilter.includeClassNamePatterns(ClassNameFilter.STANDARD_INCLUDE_PATTERN))
+          .build();
+    }
+    Map<Pattern, List<Pattern>> entries = parseSelection(selection);
+    String[] classPatterns = entries.keySet().stream().map(Pattern::pattern).toArray(String[]::new);
+    PostDiscoveryFilter methods = descriptor -> {
+      TestSource source = descriptor.getSource().orElse(null);
+      if (!(source instanceof MethodSource)) {
+        return FilterResult.included("not a method");
+      }
+      MethodSource method = (MethodSource) source;
+      for (Map.Entry<Pattern, List<Pattern>> entry : entries.entrySet()) {
+        if (!entry.getKey().matcher(method.getClassName()).matches()) {
+          continue;
+        }
+        if (entry.getValue().isEmpty()
+            || entry.getValue().stream().anyMatch(p -> p.matcher(method.getMethodName()).matches())) {
+          return FilterResult.included("selected");
+        }
+      }
+      return FilterResult.excluded("not selected");
+    };
+    return builder.filters(ClassNameFilter.includeClassNamePatterns(classPatterns), methods).build();
+  }
+
+  /**
+   * Modules of a selection made only of {@code @mandatory} (all products) or
+   * {@code @mandatory:<module>} entries, empty for all; {@code null} for a pattern selection.
+   */
+  static List<String> mandatoryModules(String selection) {
+    List<String> modules = new ArrayList<>();
+    boolean all = false;
+    int entries = 0;
+    for (String entry : selection.split(",")) {
+      entry = entry.trim();
+      if (entry.isEmpty()) {
+        continue;
+      }
+      entries++;
+      if (entry.equals(MANDATORY)) {
+        all = true;
+      } else if (entry.startsWith(MANDATORY + ":")) {
+        modules.add(entry.substring(MANDATORY.length() + 1));
+      }
+    }
+    int mandatoryEntries = modules.size() + (all ? 1 : 0);
+    if (mandatoryEntries == 0) {
+      return null;
+    }
+    if (mandatoryEntries != entries) {
+      throw new IllegalArgumentException("Cannot mix " + MANDATORY + " with test patterns: " + selection);
+    }
+    return all ? new ArrayList<>() : modules;
+  }
+
+  /** {@code Class#m1+m2,Class2} to class-name pattern and method-name patterns (empty: all). */
+  static Map<Pattern, List<Pattern>> parseSelection(String selection) {
+    Map<Pattern, List<Pattern>> entries = new LinkedHashMap<>();
+    for (String entry : selection.split(",")) {
+      entry = entry.trim();
+      if (entry.isEmpty()) {
+        continue;
+      }
+      int hash = entry.indexOf('#');
+      String className = hash < 0 ? entry : entry.substring(0, hash);
+      String regex = glob(className.replace('/', '.'));
+      if (!className.contains(".")) {
+        regex = "(.+[.$])?" + regex;
+      }
+      List<Pattern> methods = new ArrayList<>();
+      if (hash >= 0) {
+        for (String method : entry.substring(hash + 1).split("\\+")) {
+          if (!method.trim().isEmpty()) {
+            methods.add(Pattern.compile(glob(method.trim())));
+          }
+        }
+      }
+      entries.computeIfAbsent(Pattern.compile(regex), k -> new ArrayList<>()).addAll(methods);
+    }
+    return entries;
+  }
+
+  private static String glob(String value) {
+    return Arrays.stream(value.split("\\*", -1))
+        .map(part -> part.isEmpty() ? "" : Pattern.quote(part))
+        .collect(Collectors.joining(".*"));
+  }
+
+  private static boolean isInvocation(TestIdentifier identifier) {
+    return identifier.getUniqueIdObject().getLastSegment().getType().endsWith("invocation");
+  }
+
+  /** Drops ids nested under another failed id: a failed class reruns all of its tests anyway. */
+  private static List<String> outermost(Set<String> failed) {
+    List<String> result = new ArrayList<>();
+    for (String id : failed) {
+      UniqueId uniqueId = UniqueId.parse(id);
+      boolean nested = failed.stream()
+          .anyMatch(other -> !other.equals(id) && uniqueId.hasPrefix(UniqueId.parse(other)));
+      if (!nested) {
+        result.add(id);
+      }
+    }
+    return result;
+  }
+
+  /** Failures of one attempt and their {@link RetryCoordinator.Kind}, by unique id. */
+  private static final class Attempt implements TestExecutionListener {
+
+    private final Map<String, RetryCoordinator.Kind> failed = new ConcurrentHashMap<>();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private volatile boolean unattributed;
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+      if (result.getStatus() != TestExecutionResult.Status.FAILED) {
+        return;
+      }
+      TestSource source = identifier.getSource().orElse(null);
+      if (source instanceof MethodSource || source instanceof ClassSource) {
+        String name = TestCaseContext.nameOf(identifier);
+        // An invocation only exists once its template generated it (a @Retry attempt needs the
+        // attempts before it), so rerun the whole test method.
+        String id = isInvocation(identifier) ? identifier.getParentId().orElse(identifier.getUniqueId())
+            : identifier.getUniqueId();
+        names.put(id, name);
+        failed.put(id, RetryCoordinator.classify(result.getThrowable().orElse(null), name));
+      } else {
+        unattributed = true;
+      }
+    }
+  }
+
+  /** Latest result of every test (and every failed class setup) across attempts. */
+  private static final class Outcomes implements TestExecutionListener {
+
+    private final Map<String, Long> started = new ConcurrentHashMap<>();
+    private final Map<String, Outcome> results = new ConcurrentHashMap<>();
+
+    @Override
+    public void executionStarted(TestIdentifier identifier) {
+      started.put(identifier.getUniqueId(), System.nanoTime());
+      if (identifier.isContainer() && identifier.getSource().orElse(null) instanceof MethodSource) {
+        // A rerun template starts over: drop the invocations of earlier attempts.
+        String prefix = identifier.getUniqueId() + "/";
+        results.keySet().removeIf(id -> id.startsWith(prefix));
+      }
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier identifier, String reason) {
+      Outcome outcome = Outcome.of(identifier);
+      if (identifier.isTest() && outcome != null) {
+        outcome.skipped = reason == null ? "" : reason;
+        results.put(identifier.getUniqueId(), outcome);
+      }
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+      Long start = started.remove(identifier.getUniqueId());
+      Outcome outcome = Outcome.of(identifier);
+      if (outcome == null) {
+        return;
+      }
+      if (!identifier.isTest() && result.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+        results.remove(identifier.getUniqueId());
+        return;
+      }
+      if (!identifier.isTest() && result.getStatus() == TestExecutionResult.Status.ABORTED) {
+        return;
+      }
+      outcome.seconds = start == null ? 0 : (System.nanoTime() - start) / 1e9;
+      if (result.getStatus() == TestExecutionResult.Status.ABORTED) {
+        outcome.skipped = result.getThrowable().map(Throwable::getMessage).orElse("");
+      } else if (result.getStatus() == TestExecutionResult.Status.FAILED) {
+        outcome.failure = result.getThrowable().orElse(new AssertionError("failed"));
+      }
+      results.put(identifier.getUniqueId(), outcome);
+    }
+
+    private boolean anyFailed() {
+      return results.values().stream().anyMatch(outcome -> outcome.failure != null);
+    }
+
+    private void write(Path dir) {
+      Map<String, List<Outcome>> byClass = new TreeMap<>();
+      for (Outcome outcome : results.values()) {
+        byClass.computeIfAbsent(outcome.className, k -> new ArrayList<>()).add(outcome);
+      }
+      try {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, List<Outcome>> suite : byClass.entrySet()) {
+          Files.write(dir.resolve("TEST-" + suite.getKey() + ".xml"),
+              suiteXml(suite.getKey(), suite.getValue()).getBytes(StandardCharsets.UTF_8));
+        }
+        log.info("Test reports written to {}", dir.toAbsolutePath());
+      } catch (IOException e) {
+        log.warn("Could not write test reports to {}: {}", dir, e.getMessage());
+      }
+    }
+
+    private static String suiteXml(String className, List<Outcome> outcomes) {
+      outcomes.sort((a, b) -> a.name.compareTo(b.name));
+      int failures = 0;
+      int errors = 0;
+      int skipped = 0;
+      double seconds = 0;
+      for (Outcome outcome : outcomes) {
+        if (outcome.failure instanceof AssertionError) {
+          failures++;
+        } else if (outcome.failure != null) {
+          errors++;
+        } else if (outcome.skipped != null) {
+          skipped++;
+        }
+        seconds += outcome.seconds;
+      }
+      StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+          .append("<testsuite name=\"").append(escape(className)).append("\" tests=\"").append(outcomes.size())
+          .append("\" failures=\"").append(failures).append("\" errors=\"").append(errors)
+          .append("\" skipped=\"").append(skipped).append("\" time=\"").append(time(seconds)).append("\">\n");
+      for (Outcome outcome : outcomes) {
+        xml.append("  <testcase name=\"").append(escape(outcome.name)).append("\" classname=\"")
+            .append(escape(className)).append("\" time=\"").append(time(outcome.seconds)).append("\"");
+        if (outcome.failure != null) {
+          String element = outcome.failure instanceof AssertionError ? "failure" : "error";
+          xml.append(">\n    <").append(element).append(" message=\"")
+              .append(escape(String.valueOf(outcome.failure.getMessage()))).append("\" type=\"")
+              .append(escape(outcome.failure.getClass().getName())).append("\">")
+              .append(escape(stackTrace(outcome.failure))).append("</").append(element).append(">\n")
+              .append("  </testcase>\n");
+        } else if (outcome.skipped != null) {
+          xml.append(">\n    <skipped message=\"").append(escape(outcome.skipped)).append("\"/>\n")
+              .append("  </testcase>\n");
+        } else {
+          xml.append("/>\n");
+        }
+      }
+      return xml.append("</testsuite>\n").toString();
+    }
+
+    private static String time(double seconds) {
+      return String.format(Locale.ROOT, "%.3f", seconds);
+    }
+
+    private static String stackTrace(Throwable throwable) {
+      StringWriter out = new StringWriter();
+      throwable.printStackTrace(new PrintWriter(out));
+      return out.toString();
+    }
+
+    private static String escape(String text) {
+      StringBuilder escaped = new StringBuilder(text.length());
+      for (char c : text.toCharArray()) {
+        switch (c) {
+          case '&':
+            escaped.append("&amp;");
+            break;
+          case '<':
+            escaped.append("&lt;");
+            break;
+          case '>':
+            escaped.append("&gt;");
+            break;
+          case '"':
+            escaped.append("&quot;");
+            break;
+          case '\n':
+          case '\r':
+          case '\t':
+            escaped.append(c);
+            break;
+          default:
+            if (c >= 0x20) {
+              escaped.append(c);
+            }
+        }
+      }
+      return escaped.toString();
+    }
+  }
+
+  /** One row of a Surefire report. */
+  private static final class Outcome {
+
+    private final String className;
+    private final String name;
+    private double seconds;
+    private Throwable failure;
+    private String skipped;
+
+    private Outcome(String className, String name) {
+      this.className = className;
+      this.name = name;
+    }
+
+    /**
+     * Tests are named like Surefire does: {@code method}, or {@code method(params)[n]} for an
+     * invocation of a parameterized or repeated test; a failed class is named after itself so the
+     * runners' retry extraction reruns the whole class.
+     */
+    private static Outcome of(TestIdentifier identifier) {
+      TestSource source = identifier.getSource().orElse(null);
+      if (source instanceof MethodSource) {
+        MethodSource method = (MethodSource) source;
+        String name = method.getMethodName();
+        if (isInvocation(identifier)) {
+          String index = identifier.getUniqueIdObject().getLastSegment().getValue().replace("#", "");
+          name += "(" + method.getMethodParameterTypes() + ")[" + index + "]";
+        }
+        return new Outcome(method.getClassName(), name);
+      }
+      if (source instanceof ClassSource) {
+        String className = ((ClassSource) source).getClassName();
+        return new Outcome(className, className);
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,339 @@
+package id.dana.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLException;
+import okhttp3.Response;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.opentest4j.AssertionFailedError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides whether a failed test is worth another attempt, how long to wait, and keeps one retry
+ * time budget for the whole run, shared by {@link RetryTestUtil.Retry}, {@link RerunLauncher} and
+ * {@code runners/java/retry.sh}.
+ *
+ * <p>Failures are {@link #classify classified} from the exception chain and the last HTTP response
+ * the test received (recorded by {@link ApiTimings} for every {@link HttpClientFactory} call):
+ * network errors, timeouts and 5xx are {@link Kind#TRANSIENT}, 429 is {@link Kind#RATE_LIMIT},
+ * fixture mismatches are {@link Kind#ASSERTION} and anything else (configuration, fixtures, code)
+ * is {@link Kind#SETUP}. Only the first two are retried. The wait doubles per attempt from the
+ * layer's base delay, a rate limit waits one doubling longer, {@code Retry-After} is honoured and
+ * {@code RETRY_MAX_DELAY_SECONDS} (default 300) caps the result.
+ *
+ * <p>Every wait is taken from {@code RETRY_BUDGET_SECONDS} (default 900) for the run. When the
+ * runners set {@code RETRY_BUDGET_STATE_FILE} the used time is read at start-up and written back at
+ * the end of the test plan, so Maven attempts started by {@code retry.sh} share it. After a plan
+ * with failures, {@code retry-plan.properties} in {@code target/surefire-reports} tells
+ * {@code retry.sh} which tests to retry and how long to wait first.
+ *
+ * <p>Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}.
+ */
+public class RetryCoordinator implements TestExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(RetryCoordinator.class);
+
+  private static final String REPORTS_PROPERTY = "surefire.reports.dir";
+
+  private static final String DEFAULT_REPORTS = "target/surefire-reports";
+
+  private static final String PLAN_FILE = "retry-plan.properties";
+
+  private static final long BUDGET_MILLIS = longConfig("RETRY_BUDGET_SECONDS", 900) * 1_000;
+
+  private static final long MAX_DELAY_MILLIS = longConfig("RETRY_MAX_DELAY_SECONDS", 300) * 1_000;
+
+  private static final String STATE_FILE = ConfigUtil.getConfig("RETRY_BUDGET_STATE_FILE", "");
+
+  private static final AtomicLong USED_MILLIS = new AtomicLong(readState());
+
+  private static final Map<String, HttpOutcome> LAST_RESPONSE = new ConcurrentHashMap<>();
+
+  private static final Map<String, Failure> FAILURES = new ConcurrentHashMap<>();
+
+  /** Why a test failed, as far as retrying is concerned. */
+  public enum Kind {
+    /** Network error, timeout or 5xx from the sandbox. */
+    TRANSIENT(true),
+    /** 429 from the sandbox. */
+    RATE_LIMIT(true),
+    /** The response did not match the fixture. */
+    ASSERTION(false),
+    /** Configuration, fixture or code error; fails the same way every time. */
+    SETUP(false);
+
+    private final boolean retryable;
+
+    Kind(boolean retryable) {
+      this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+      return retryable;
+    }
+  }
+
+  /** Classifies {@code failure} of the test running on this thread. */
+  public static Kind classify(Throwable failure) {
+    return classify(failure, TestCaseContext.current());
+  }
+
+  /** Classifies {@code failure} of {@code test} (a {@link TestCaseContext} name). */
+  public static Kind classify(Throwable failure, String test) {
+    HttpOutcome last = LAST_RESPONSE.get(test);
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof InterruptedIOException || cause instanceof SocketException
+          || cause instanceof UnknownHostException || cause instanceof SSLException) {
+        return Kind.TRANSIENT;
+      }
+      if (cause instanceof Await.Timeout) {
+        // A poll that never saw the expected state, e.g. a payment the sandbox settles slowly
+        return Kind.TRANSIENT;
+      }
+      if (cause.getClass().getSimpleName().equals("TimeoutError")) {
+        // Playwright navigation or selector timeout
+        return Kind.TRANSIENT;
+      }
+    }
+    if (failure instanceof AssertionError && !wrapsOtherFailure(failure)) {
+      return Kind.ASSERTION;
+    }
+    if (last != null && last.status == 429) {
+      return Kind.RATE_LIMIT;
+    }
+    if (last != null && (last.status >= 500 || last.status == 408)) {
+      return Kind.TRANSIENT;
+    }
+    if (failure instanceof AssertionError) {
+      return Kind.ASSERTION;
+    }
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof IOException) {
+        return Kind.TRANSIENT;
+      }
+    }
+    return Kind.SETUP;
+  }
+
+  /**
+   * Wait before retry {@code attempt} (1 for the first retry) of a failure of {@code kind} in
+   * {@code test}: {@code baseMillis} doubled per attempt (once more for a rate limit), at least the
+   * test's last {@code Retry-After}, plus up to 10% jitter so parallel tests do not come back at
+   * the same moment, capped by {@code RETRY_MAX_DELAY_SECONDS}.
+   */
+  public static long backoffMillis(Kind kind, int attempt, long baseMillis, String test) {
+    int doublings = Math.min(20, Math.max(0, attempt - 1) + (kind == Kind.RATE_LIMIT ? 1 : 0));
+    long delay = Math.min(MAX_DELAY_MILLIS, Math.max(0, baseMillis) << doublings);
+    HttpOutcome last = LAST_RESPONSE.get(test);
+    if (last != null && last.retryAfterMillis > delay) {
+      delay = Math.min(MAX_DELAY_MILLIS, last.retryAfterMillis);
+    }
+    return Math.min(MAX_DELAY_MILLIS, delay + ThreadLocalRandom.current().nextLong(delay / 10 + 1));
+  }
+
+  /** Takes {@code millis} from the run's retry budget; {@code false}, taking nothing, when it would overrun. */
+  public static boolean acquire(long millis) {
+    while (true) {
+      long used = USED_MILLIS.get();
+      if (used + millis > BUDGET_MILLIS) {
+        log.warn("Retry budget exhausted: {} of {} s used, {} s more requested",
+            used / 1_000, BUDGET_MILLIS / 1_000, millis / 1_000);
+        return false;
+      }
+      if (USED_MILLIS.compareAndSet(used, used + millis)) {
+        return true;
+      }
+    }
+  }
+
+  public static long remainingMillis() {
+    return Math.max(0, BUDGET_MILLIS - USED_MILLIS.get());
+  }
+
+  /** Called by {@link ApiTimings} for every response a test receives. */
+  static void response(String test, Response response) {
+    LAST_RESPONSE.put(test, new HttpOutcome(response.code(), retryAfterMillis(response.header("Retry-After"))));
+  }
+
+  /** {@code Retry-After} as delta-seconds or HTTP-date, in milliseconds from now; 0 when absent or unreadable. */
+  static long retryAfterMillis(String value) {
+    if (value == null || value.trim().isEmpty()) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Long.parseLong(value.trim()) * 1_000);
+    } catch (NumberFormatException e) {
+      try {
+        ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+      } catch (DateTimeParseException ignored) {
+        return 0;
+      }
+    }
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier testIdentifier) {
+    String name = TestCaseContext.nameOf(testIdentifier);
+    if (name != null && !TestCaseContext.isTemplate(testIdentifier)) {
+      LAST_RESPONSE.remove(name);
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+    if (testExecutionResult.getStatus() != TestExecutionResult.Status.FAILED) {
+      FAILURES.remove(testIdentifier.getUniqueId());
+      return;
+    }
+    String name = TestCaseContext.nameOf(testIdentifier);
+    TestSource source = testIdentifier.getSource().orElse(null);
+    String className;
+    String method = null;
+    if (source instanceof MethodSource) {
+      className = ((MethodSource) source).getClassName();
+      method = ((MethodSource) source).getMethodName();
+    } else if (source instanceof ClassSource) {
+      className = ((ClassSource) source).getClassName();
+    } else {
+      return;
+    }
+    Kind kind = classify(testExecutionResult.getThrowable().orElse(null), name);
+    FAILURES.put(testIdentifier.getUniqueId(), new Failure(name, className, method, kind));
+    log.info("[RETRY] {} failed: {}", name, kind);
+  }
+
+  @Override
+  public void testPlanExecutionFinished(TestPlan testPlan) {
+    writeState();
+    if (FAILURES.isEmpty()) {
+      return;
+    }
+    int attempt = (int) longConfig("RETRY_ATTEMPT", 1);
+    long baseMillis = longConfig("RETRY_INITIAL_DELAY_SECONDS", 10) * 1_000;
+    Map<String, Set<String>> retryable = new LinkedHashMap<>();
+    List<String> notRetryable = new ArrayList<>();
+    long delay = 0;
+    for (Failure failure : FAILURES.values()) {
+      if (!failure.kind.isRetryable()) {
+        notRetryable.add(failure.name + "=" + failure.kind);
+        continue;
+      }
+      Set<String> methods = retryable.computeIfAbsent(failure.className, k -> new LinkedHashSet<>());
+      if (failure.method == null) {
+        methods.add("");
+      } else {
+        methods.add(failure.method);
+      }
+      delay = Math.max(delay, backoffMillis(failure.kind, attempt, baseMillis, failure.name));
+    }
+
+    List<String> selection = new ArrayList<>();
+    retryable.forEach((className, methods) -> selection.add(methods.contains("") || methods.isEmpty()
+        ? className : className + "#" + String.join("+", methods)));
+    Path dir = Paths.get(System.getProperty(REPORTS_PROPERTY, DEFAULT_REPORTS));
+    String plan = "retryable=" + String.join(",", selection) + "\n"
+        + "notRetryable=" + String.join(",", notRetryable) + "\n"
+        + "delaySeconds=" + (delay + 999) / 1_000 + "\n"
+        + "budgetRemainingSeconds=" + remainingMillis() / 1_000 + "\n";
+    try {
+      Files.createDirectories(dir);
+      Files.write(dir.resolve(PLAN_FILE), plan.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      log.warn("Could not write {}: {}", dir.resolve(PLAN_FILE), e.getMessage());
+    }
+  }
+
+  /**
+   * {@code fail("... failed: " + e.getMessage())} in a catch block, or an {@code assertTrue} on an
+   * error body, carries no expected value: the failure behind it is judged by the test's last HTTP
+   * response instead. Fixture comparisons ({@link TestUtil#assertResponse}) and
+   * {@code assertEquals} stay assertions.
+   */
+  private static boolean wrapsOtherFailure(Throwable failure) {
+    return failure instanceof AssertionFailedError && !((AssertionFailedError) failure).isExpectedDefined();
+  }
+
+  private static long readState() {
+    if (STATE_FILE.isEmpty()) {
+      return 0;
+    }
+    try {
+      Path path = Paths.get(STATE_FILE);
+      return Files.exists(path) ? Long.parseLong(new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim()) : 0;
+    } catch (IOException | NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static void writeState() {
+    if (STATE_FILE.isEmpty()) {
+      return;
+    }
+    try {
+      Files.write(Paths.get(STATE_FILE), String.valueOf(USED_MILLIS.get()).getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      log.warn("Could not write retry budget state to {}: {}", STATE_FILE, e.getMessage());
+    }
+  }
+
+  private static long longConfig(String key, long defaultValue) {
+    try {
+      return Long.parseLong(ConfigUtil.getConfig(key, String.valueOf(defaultValue)).trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  private static final class HttpOutcome {
+
+    private final int status;
+    private final long retryAfterMillis;
+
+    private HttpOutcome(int status, long retryAfterMillis) {
+      this.status = status;
+      this.retryAfterMillis = retryAfterMillis;
+    }
+  }
+
+  private static final class Failure {
+
+    private final String name;
+    private final String className;
+    private final String method;
+    private final Kind kind;
+
+    private Failure(String name, String className, String method, Kind kind) {
+      this.name = name;
+      this.className = className;
+      this.method = method;
+      this.kind = kind;
+    }
+  }
+}
@@ -1,6 +1,11 @@
 package id.dana.util;
 
+import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.api.extension.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.TestAbortedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,53 +13,187 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class RetryTestUtil {
     private static final Logger log = LoggerFactory.getLogger(RetryTestUtil.class);
 
+    /**
+     * Use instead of {@code @Test}. Every attempt is its own invocation with the full lifecycle
+     * ({@code @BeforeEach}/{@code @AfterEach}, parameter resolution), timed and reported on its own
+     * as {@code method()[n]}. A failed attempt is retried only when {@link RetryCoordinator}
+     * classifies it as transient and the run's retry budget covers the wait; it is then reported as
+     * aborted, with its real failure as the cause, and the last attempt decides the result.
+     */
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
+    @TestTemplate
+    @Execution(ExecutionMode.SAME_THREAD)  // the next attempt is decided by the previous one
     @ExtendWith(RetryExtension.class)
     public @interface Retry {
-        int value() default 3;  // Default retry count
-        long waitMs() default 1000;  // Default wait time between retries
+        int value() default 3;  // Maximum number of attempts
+        long waitMs() default 1000;  // Base wait before the first retry, see RetryCoordinator#backoffMillis
     }
 
-    static class RetryExtension implements TestExecutionExceptionHandler {
+    static class RetryExtension implements TestTemplateInvocationContextProvider {
         @Override
-        public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
-            Retry retry = context.getRequiredTestMethod().getAnnotation(Retry.class);
-            if (retry == null) {
-                throw throwable;
-            }
+        public boolean supportsTestTemplate(ExtensionContext context) {
+            return AnnotationSupport.isAnnotated(context.getTestMethod(), Retry.class);
+        }
+
+        @Override
+        public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext context) {
+            Retry retry = AnnotationSupport.findAnnotation(context.getTestMethod(), Retry.class).get();
+            return StreamSupport.stream(new Attempts(context.getRequiredTestMethod().getName(), retry), false);
+        }
+    }
+
+    /**
+     * Hands out the next attempt only after the previous one failed with a retryable failure. The
+     * wait before it runs in {@link ForkJoinPool#managedBlock}, so in parallel mode the pool can
+     * run another test class meanwhile instead of losing a worker to the sleep.
+     */
+    private static final class Attempts extends Spliterators.AbstractSpliterator<TestTemplateInvocationContext> {
+        private final String name;
+        private final int maxAttempts;
+        private final long waitMs;
+        private int started;
+        private volatile boolean retryNext;
+        private volatile long retryAtNanos;
+        private volatile long retryDelayMs;
 
-            int maxRetries = retry.value();
-            long waitMs = retry.waitMs();
-            int attempts = 1;
+        private Attempts(String name, Retry retry) {
+            super(Math.max(1, retry.value()), Spliterator.ORDERED);
+            this.name = name;
+            this.maxAttempts = Math.max(1, retry.value());
+            this.waitMs = retry.waitMs();
+        }
 
-            while (attempts < maxRetries) {
+        @Override
+        public boolean tryAdvance(Consumer<? super TestTemplateInvocationContext> action) {
+            if (started > 0) {
+                if (!retryNext || started >= maxAttempts) {
+                    return false;
+                }
+                retryNext = false;
                 try {
-                    log.warn("Test '{}' failed (attempt {}/{}). Retrying in {} ms...",
-                            context.getTestMethod().get().getName(),
-                            attempts,
-                            maxRetries,
-                            waitMs);
-                    Thread.sleep(waitMs);
-
-                    // Retry the test
-                    context.getRequiredTestMethod().invoke(context.getRequiredTestInstance());
-                    return; // Test passed, exit
-
-                } catch (Exception e) {
-                    attempts++;
-                    if (attempts >= maxRetries) {
-                        log.error("Test '{}' failed after {} attempts",
-                                context.getTestMethod().get().getName(),
-                                maxRetries);
-                        throw throwable; // Throw original error if all retries failed
+                    waitUntil(retryAtNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                PerfReport.slept(retryDelayMs);
+            }
+            started++;
+            action.accept(new Attempt(this, started));
+            return true;
+        }
+
+        private static void waitUntil(long deadlineNanos) throws InterruptedException {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining > 0) {
+                        TimeUnit.NANOSECONDS.sleep(remaining);
                     }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return System.nanoTime() - deadlineNanos >= 0;
+                }
+            });
+        }
+    }
+
+    /**
+     * One attempt; decides on its own failure whether there will be another. Failures of its
+     * {@code @BeforeEach}/{@code @AfterEach} methods count as the attempt's, so a transient login or
+     * order setup in {@code @BeforeEach} is retried like one in the test body.
+     */
+    private static final class Attempt implements TestTemplateInvocationContext, TestExecutionExceptionHandler,
+            LifecycleMethodExecutionExceptionHandler {
+        private final Attempts attempts;
+        private final int number;
+        private boolean retrying;
+
+        private Attempt(Attempts attempts, int number) {
+            this.attempts = attempts;
+            this.number = number;
+        }
+
+        @Override
+        public String getDisplayName(int invocationIndex) {
+            return "attempt " + number + "/" + attempts.maxAttempts;
+        }
+
+        @Override
+        public List<Extension> getAdditionalExtensions() {
+            return Collections.singletonList(this);
+        }
+
+        @Override
+        public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+            retryOrRethrow(throwable);
+        }
+
+        @Override
+        public void handleBeforeEachMethodExecutionException(ExtensionContext context, Throwable throwable)
+                throws Throwable {
+            retryOrRethrow(throwable);
+        }
+
+        @Override
+        public void handleAfterEachMethodExecutionException(ExtensionContext context, Throwable throwable)
+                throws Throwable {
+            retryOrRethrow(throwable);
+        }
+
+        private void retryOrRethrow(Throwable throwable) throws Throwable {
+            if (retrying) {
+                // the attempt is already aborted for a retry; later failures are suppressed into that
+                throw throwable;
+            }
+            if (number >= attempts.maxAttempts) {
+                if (number > 1) {
+                    log.error("Test '{}' failed after {} attempts", attempts.name, number);
                 }
+                throw throwable;
+            }
+            String test = TestCaseContext.current();
+            RetryCoordinator.Kind kind = RetryCoordinator.classify(throwable, test);
+            if (!kind.isRetryable()) {
+                log.warn("Test '{}' failed with {} (attempt {}/{}); not retrying",
+                        attempts.name, kind, number, attempts.maxAttempts);
+                throw throwable;
+            }
+            long delay = RetryCoordinator.backoffMillis(kind, number, attempts.waitMs, test);
+            if (!RetryCoordinator.acquire(delay)) {
+                throw throwable;
             }
+            log.warn("Test '{}' failed with {} (attempt {}/{}). Retrying in {} ms...",
+                    attempts.name,
+                    kind,
+                    number,
+                    attempts.maxAttempts,
+                    delay);
+            PerfReport.retried();
+            attempts.retryDelayMs = delay;
+            attempts.retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            attempts.retryNext = true;
+            retrying = true;
+            throw new TestAbortedException("Attempt " + number + "/" + attempts.maxAttempts + " failed with "
+                    + kind + "; retrying in " + delay + " ms", throwable);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package id.dana.util;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs run-level statistics and writes the {@link AssertionReport}, {@link ApiTimings} and
+ * {@link PerfReport} reports once the whole test plan has finished. Registered through
+ * {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}, so it is picked up by
+ * Surefire and IDE runs alike.
+ */
+public class RunSummaryListener implements TestExecutionListener {
+
+  private static final Logger log = LoggerFactory.getLogger(RunSummaryListener.class);
+
+  @Override
+  public void testPlanExecutionFinished(TestPlan testPlan) {
+    log.info("HTTP {}", HttpClientFactory.connectionStats());
+    log.info("API {}", ApiTimings.summary());
+    ApiTimings.logSummary();
+    log.info("Polling {}", Await.summary());
+    log.info("Assertions {}", AssertionReport.summary());
+    AssertionReport.write();
+    ApiTimings.write();
+    PerfReport.write();
+  }
+}
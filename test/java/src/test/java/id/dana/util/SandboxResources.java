@@ -0,0 +1,21 @@
+package id.dana.util;
+
+/**
+ * Keys for {@link org.junit.jupiter.api.parallel.ResourceLock} on sandbox state that is shared
+ * between test classes. Only relevant when parallel execution is enabled (see
+ * {@code junit-platform.properties}); classes holding the same key never run concurrently.
+ */
+public final class SandboxResources {
+
+  /** Merchant deposit balance, debited by transfers and refilled by {@code DisbursementMerchantTopUp}. */
+  public static final String MERCHANT_DEPOSIT = "dana.sandbox.merchant-deposit";
+
+  /** Customer numbers in {@link DisbursementCustomerRetry#CUSTOMER_NUMBERS}. */
+  public static final String DISBURSEMENT_CUSTOMERS = "dana.sandbox.disbursement-customers";
+
+  /** Test user 083811223355: OAuth login, binding and payments through the DANA UI. */
+  public static final String OAUTH_USER = "dana.sandbox.oauth-user-083811223355";
+
+  private SandboxResources() {
+  }
+}
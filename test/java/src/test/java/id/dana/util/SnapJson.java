@@ -0,0 +1,117 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Canonical SNAP body: compact JSON with object keys sorted at every level, as UTF-8 bytes.
+ *
+ * <p>Streams the tree straight through one shared {@link JsonFactory}, so there is no per-call
+ * {@code ObjectMapper} and no {@code treeToValue(node, Object.class)} round trip through maps just
+ * to sort keys. Keys are ordered by {@link String#compareTo}, the same order
+ * {@code SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS} gives, so the output is byte-identical to
+ * the previous helpers.
+ */
+public final class SnapJson {
+
+  private static final JsonFactory FACTORY = new JsonFactory();
+
+  private SnapJson() {
+  }
+
+  public static byte[] canonicalBytes(JsonNode node) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+      write(node, generator);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not serialize SNAP body", e);
+    }
+    return out.toByteArray();
+  }
+
+  public static String canonical(JsonNode node) {
+    return new String(canonicalBytes(node), StandardCharsets.UTF_8);
+  }
+
+  private static void write(JsonNode node, JsonGenerator generator) throws IOException {
+    switch (node.getNodeType()) {
+      case OBJECT:
+        writeObject(node, generator);
+        break;
+      case ARRAY:
+        generator.writeStartArray();
+        for (JsonNode item : node) {
+          write(item, generator);
+        }
+        generator.writeEndArray();
+        break;
+      case STRING:
+        generator.writeString(node.textValue());
+        break;
+      case NUMBER:
+        writeNumber(node, generator);
+        break;
+      case BOOLEAN:
+        generator.writeBoolean(node.booleanValue());
+        break;
+      case BINARY:
+        generator.writeBinary(node.binaryValue());
+        break;
+      case NULL:
+      case MISSING:
+        generator.writeNull();
+        break;
+      default:
+        generator.writeString(node.asText());
+        break;
+    }
+  }
+
+  private static void writeObject(JsonNode node, JsonGenerator generator) throws IOException {
+    String[] names = new String[node.size()];
+    int i = 0;
+    for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+      names[i++] = it.next();
+    }
+    if (names.length > 1) {
+      Arrays.sort(names);
+    }
+    generator.writeStartObject();
+    for (String name : names) {
+      generator.writeFieldName(name);
+      write(node.get(name), generator);
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeNumber(JsonNode node, JsonGenerator generator) throws IOException {
+    switch (node.numberType()) {
+      case INT:
+        generator.writeNumber(node.intValue());
+        break;
+      case LONG:
+        generator.writeNumber(node.longValue());
+        break;
+      case BIG_INTEGER:
+        generator.writeNumber(node.bigIntegerValue());
+        break;
+      case FLOAT:
+        generator.writeNumber(node.floatValue());
+        break;
+      case BIG_DECIMAL:
+        generator.writeNumber(node.decimalValue());
+        break;
+      case DOUBLE:
+      default:
+        generator.writeNumber(node.doubleValue());
+        break;
+    }
+  }
+}
@@ -0,0 +1,241 @@
+package id.dana.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import id.dana.invoker.JSON;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled {@code ${VAR}} substitution plan for a fixture node.
+ *
+ * <p>Compiling walks the tree once and records only the paths whose string value contains a
+ * placeholder, with the string pre-split into literal and variable segments. Applying the plan
+ * touches only those paths; every other subtree is left as is.
+ */
+final class TemplatePlan {
+
+  private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
+
+  private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+
+  private static final TemplatePlan EMPTY = new TemplatePlan(null);
+
+  /** Trie over the placeholder paths; {@code null} when the node has no placeholders. */
+  private final PathNode root;
+
+  private TemplatePlan(PathNode root) {
+    this.root = root;
+  }
+
+  static TemplatePlan compile(JsonNode node) {
+    PathNode root = compileNode(node);
+    return root == null ? EMPTY : new TemplatePlan(root);
+  }
+
+  boolean isEmpty() {
+    return root == null;
+  }
+
+  /**
+   * Copy-on-write apply: containers on a placeholder path are shallow-copied, untouched subtrees
+   * are shared with {@code source}. {@code source} itself is never modified.
+   */
+  JsonNode apply(JsonNode source, Map<String, String> env) {
+    if (root == null) {
+      return source;
+    }
+    return copyOnWrite(source, root, env);
+  }
+
+  /**
+   * Applies the plan directly onto {@code target}, which must be a private copy of the node the
+   * plan was compiled from.
+   */
+  JsonNode applyInPlace(JsonNode target, Map<String, String> env) {
+    if (root == null) {
+      return target;
+    }
+    if (root.segments != null) {
+      return TextNode.valueOf(root.resolve(target.asText(), env));
+    }
+    writeInPlace(target, root, env);
+    return target;
+  }
+
+  private static PathNode compileNode(JsonNode node) {
+    if (node.isTextual()) {
+      List<Segment> segments = split(node.asText());
+      return segments == null ? null : PathNode.leaf(segments);
+    }
+    if (node.isObject()) {
+      Map<String, PathNode> fields = null;
+      Iterator<Map.Entry<String, JsonNode>> it = node.fields();
+      while (it.hasNext()) {
+        Map.Entry<String, JsonNode> entry = it.next();
+        PathNode child = compileNode(entry.getValue());
+        if (child != null) {
+          if (fields == null) {
+            fields = new LinkedHashMap<>();
+          }
+          fields.put(entry.getKey(), child);
+        }
+      }
+      return fields == null ? null : PathNode.object(fields);
+    }
+    if (node.isArray()) {
+      Map<Integer, PathNode> items = null;
+      for (int i = 0; i < node.size(); i++) {
+        PathNode child = compileNode(node.get(i));
+        if (child != null) {
+          if (items == null) {
+            items = new LinkedHashMap<>();
+          }
+          items.put(i, child);
+        }
+      }
+      return items == null ? null : PathNode.array(items);
+    }
+    return null;
+  }
+
+  /** Splits {@code text} into literal/variable segments, or {@code null} if it has no placeholder. */
+  private static List<Segment> split(String text) {
+    if (text.indexOf("${") < 0) {
+      return null;
+    }
+    Matcher matcher = TEMPLATE_PATTERN.matcher(text);
+    List<Segment> segments = null;
+    int last = 0;
+    while (matcher.find()) {
+      if (segments == null) {
+        segments = new ArrayList<>();
+      }
+      if (matcher.start() > last) {
+        segments.add(Segment.literal(text.substring(last, matcher.start())));
+      }
+      // Variable names are looked up upper-cased, as environment variables are
+      segments.add(Segment.variable(matcher.group(1).toUpperCase(), matcher.group(0)));
+      last = matcher.end();
+    }
+    if (segments == null) {
+      return null;
+    }
+    if (last < text.length()) {
+      segments.add(Segment.literal(text.substring(last)));
+    }
+    return Collections.unmodifiableList(segments);
+  }
+
+  private static JsonNode copyOnWrite(JsonNode node, PathNode plan, Map<String, String> env) {
+    if (plan.segments != null) {
+      return TextNode.valueOf(plan.resolve(node.asText(), env));
+    }
+    if (plan.fields != null) {
+      ObjectNode copy = objectMapper.createObjectNode();
+      copy.setAll((ObjectNode) node);
+      for (Map.Entry<String, PathNode> entry : plan.fields.entrySet()) {
+        copy.set(entry.getKey(), copyOnWrite(node.get(entry.getKey()), entry.getValue(), env));
+      }
+      return copy;
+    }
+    ArrayNode copy = objectMapper.createArrayNode();
+    copy.addAll((ArrayNode) node);
+    for (Map.Entry<Integer, PathNode> entry : plan.items.entrySet()) {
+      copy.set(entry.getKey(), copyOnWrite(node.get(entry.getKey()), entry.getValue(), env));
+    }
+    return copy;
+  }
+
+  private static void writeInPlace(JsonNode node, PathNode plan, Map<String, String> env) {
+    if (plan.fields != null) {
+      ObjectNode object = (ObjectNode) node;
+      for (Map.Entry<String, PathNode> entry : plan.fields.entrySet()) {
+        PathNode child = entry.getValue();
+        if (child.segments != null) {
+          object.put(entry.getKey(), child.resolve(object.get(entry.getKey()).asText(), env));
+        } else {
+          writeInPlace(object.get(entry.getKey()), child, env);
+        }
+      }
+      return;
+    }
+    ArrayNode array = (ArrayNode) node;
+    for (Map.Entry<Integer, PathNode> entry : plan.items.entrySet()) {
+      PathNode child = entry.getValue();
+      if (child.segments != null) {
+        array.set(entry.getKey(), TextNode.valueOf(child.resolve(array.get(entry.getKey()).asText(), env)));
+      } else {
+        writeInPlace(array.get(entry.getKey()), child, env);
+      }
+    }
+  }
+
+  private static final class PathNode {
+
+    private final Map<String, PathNode> fields;
+    private final Map<Integer, PathNode> items;
+    private final List<Segment> segments;
+
+    private PathNode(Map<String, PathNode> fields, Map<Integer, PathNode> items, List<Segment> segments) {
+      this.fields = fields;
+      this.items = items;
+      this.segments = segments;
+    }
+
+    static PathNode object(Map<String, PathNode> fields) {
+      return new PathNode(fields, null, null);
+    }
+
+    static PathNode array(Map<Integer, PathNode> items) {
+      return new PathNode(null, items, null);
+    }
+
+    static PathNode leaf(List<Segment> segments) {
+      return new PathNode(null, null, segments);
+    }
+
+    String resolve(String original, Map<String, String> env) {
+      StringBuilder sb = new StringBuilder(original.length());
+      for (Segment segment : segments) {
+        if (segment.variable == null) {
+          sb.append(segment.text);
+        } else {
+          String value = env.get(segment.variable);
+          // Unknown variables stay as the literal placeholder
+          sb.append(value != null ? value : segment.text);
+        }
+      }
+      return sb.toString();
+    }
+  }
+
+  private static final class Segment {
+
+    /** Literal text, or the original {@code ${...}} placeholder for variable segments. */
+    private final String text;
+    private final String variable;
+
+    private Segment(String text, String variable) {
+      this.text = text;
+      this.variable = variable;
+    }
+
+    static Segment literal(String text) {
+      return new Segment(text, null);
+    }
+
+    static Segment variable(String name, String placeholder) {
+      return new Segment(placeholder, name);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package id.dana.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Tracks which test the current thread is running, so measurements taken deep inside helpers
+ * (API latency, waits) can be tagged with it. The platform reports a test's start and finish on
+ * the thread that executes it, also in parallel mode, so a per-thread stack is enough: a test
+ * method is named {@code fully.qualified.Class#method}, {@code @BeforeAll} work is tagged with the
+ * fully qualified class name. Same-named suites exist in several packages (e.g. {@code CancelOrderTest}
+ * in paymentgateway and widget), so these names are the keys; {@link #displayName} shortens them
+ * for output only.
+ *
+ * <p>Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}.
+ */
+public class TestCaseContext implements TestExecutionListener {
+
+  /** Tag of work done outside any test, e.g. on background threads. */
+  public static final String NONE = "(none)";
+
+  private static final String DISPLAY_PREFIX = "id.dana.";
+
+  private static final ThreadLocal<Deque<Frame>> STACK = ThreadLocal.withInitial(ArrayDeque::new);
+
+  /** The innermost test or test class running on this thread, or {@link #NONE}. */
+  public static String current() {
+    Frame frame = STACK.get().peek();
+    return frame == null ? NONE : frame.name;
+  }
+
+  /** Runs {@code work} on this thread tagged as {@code name}, for work done ahead on behalf of a test class. */
+  static <T> T callAs(String name, Supplier<T> work) {
+    Deque<Frame> stack = STACK.get();
+    Frame frame = new Frame(name, name);
+    stack.push(frame);
+    try {
+      return work.get();
+    } finally {
+      stack.remove(frame);
+    }
+  }
+
+  /**
+   * Key of {@code identifier} in reports: {@code fully.qualified.Class#method}, a fully qualified
+   * class name, or {@code null}.
+   */
+  public static String nameOf(TestIdentifier identifier) {
+    Optional<TestSource> source = identifier.getSource();
+    if (!source.isPresent()) {
+      return null;
+    }
+    if (source.get() instanceof MethodSource) {
+      MethodSource method = (MethodSource) source.get();
+      return method.getClassName() + "#" + method.getMethodName();
+    }
+    if (source.get() instanceof ClassSource) {
+      return ((ClassSource) source.get()).getClassName();
+    }
+    return null;
+  }
+
+  /** {@code name} without the common {@code id.dana.} prefix, e.g. {@code widget.CancelOrderTest#setUp}. */
+  public static String displayName(String name) {
+    return name != null && name.startsWith(DISPLAY_PREFIX) ? name.substring(DISPLAY_PREFIX.length()) : name;
+  }
+
+  /**
+   * Whether {@code identifier} is the container of a {@code @TestTemplate} (e.g. {@code @Retry}) or
+   * parameterized test: it shares its {@link #nameOf name} with the invocations it runs, so
+   * per-test bookkeeping must count only those.
+   */
+  static boolean isTemplate(TestIdentifier identifier) {
+    return identifier.isContainer() && identifier.getSource().orElse(null) instanceof MethodSource;
+  }
+
+  @Override
+  public void executionStarted(TestIdentifier testIdentifier) {
+    String name = nameOf(testIdentifier);
+    if (name != null) {
+      STACK.get().push(new Frame(testIdentifier.getUniqueId(), name));
+    }
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+    Deque<Frame> stack = STACK.get();
+    Frame top = stack.peek();
+    if (top != null && top.uniqueId.equals(testIdentifier.getUniqueId())) {
+      stack.pop();
+    }
+  }
+
+  private static final class Frame {
+
+    private final String uniqueId;
+    private final String name;
+
+    private Frame(String uniqueId, String name) {
+      this.uniqueId = uniqueId;
+      this.name = name;
+    }
+  }
+}
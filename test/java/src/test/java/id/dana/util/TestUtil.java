@@ -12,14 +12,12 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -33,12 +31,13 @@ public final class TestUtil {
 
   private static final ObjectMapper objectMapper = JSON.getDefault().getMapper();
 
-  private static final Pattern TEMPLATE_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
-
   private static Map<String, String> envVariables = new HashMap<>();
 
+  private static final Map<String, String> templateEnv;
+
   static {
     loadEnvironmentVariables();
+    templateEnv = snapshotTemplateEnvironment();
   }
 
   /**
@@ -91,56 +90,49 @@ public final class TestUtil {
   }
 
   /**
-   * Recursively replaces ${VARIABLE_NAME} patterns with environment variables.
+   * Replaces ${VARIABLE_NAME} patterns with environment variables.
    *
-   * This method traverses through JSON objects, arrays, and strings to find template variables
-   * in the format ${VARIABLE_NAME} and replaces them with corresponding environment variable values.
+   * Placeholder paths are compiled into a {@link TemplatePlan} and substituted copy-on-write:
+   * only containers on those paths are copied, untouched subtrees are shared with {@code data}.
+   * Variable names are upper-cased and resolved against {@link #templateEnvironment()}; unknown
+   * variables are left as-is.
    *
    * @param data The JsonNode data to process
    * @return The JsonNode with template variables replaced
    */
   public static JsonNode replaceTemplateValues(JsonNode data) {
-    if (data.isArray()) {
-      ArrayNode result = objectMapper.createArrayNode();
-      for (JsonNode item : data) {
-        result.add(replaceTemplateValues(item));
-      }
-      return result;
-    } else if (data.isObject()) {
-      Iterator<Map.Entry<String, JsonNode>> fields = data.fields();
-      ObjectNode result = objectMapper.createObjectNode();
-      while (fields.hasNext()) {
-        Map.Entry<String, JsonNode> entry = fields.next();
-        result.set(entry.getKey(), replaceTemplateValues(entry.getValue()));
-      }
-      return result;
-    } else if (data.isTextual()) {
-      String text = data.asText();
-      Matcher matcher = TEMPLATE_PATTERN.matcher(text);
-      
-      String result = text;
-      while (matcher.find()) {
-        String varName = matcher.group(1);
-        // Convert variable name to uppercase for environment variable lookup
-        String envVarName = varName.toUpperCase();
-        
-        // First try system environment, then our loaded .env variables
-        String envValue = System.getenv(envVarName);
-        if (envValue == null) {
-          envValue = envVariables.get(envVarName);
-        }
-        
-        if (envValue != null) {
-          // Clean quotes from environment values if present
-          String cleanValue = envValue.replaceAll("^['\"]|['\"]$", "");
-          result = result.replace(matcher.group(0), cleanValue);
-        } else {
-        }
-      }
-      
-      return objectMapper.valueToTree(result);
+    return TemplatePlan.compile(data).apply(data, templateEnv);
+  }
+
+  /**
+   * Immutable snapshot used for ${VAR} substitution: system environment first, then the loaded
+   * .env variables, with surrounding quotes already stripped.
+   */
+  static Map<String, String> templateEnvironment() {
+    return templateEnv;
+  }
+
+  private static Map<String, String> snapshotTemplateEnvironment() {
+    Map<String, String> env = new HashMap<>();
+    for (Map.Entry<String, String> entry : envVariables.entrySet()) {
+      env.put(entry.getKey(), stripQuotes(entry.getValue()));
     }
-    return data;
+    for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+      env.put(entry.getKey(), stripQuotes(entry.getValue()));
+    }
+    return Collections.unmodifiableMap(env);
+  }
+
+  private static String stripQuotes(String value) {
+    int start = 0;
+    int end = value.length();
+    if (end > 0 && (value.charAt(0) == '\'' || value.charAt(0) == '"')) {
+      start = 1;
+    }
+    if (end > start && (value.charAt(end - 1) == '\'' || value.charAt(end - 1) == '"')) {
+      end--;
+    }
+    return value.substring(start, end);
   }
 
   /**
@@ -194,10 +186,7 @@ public final class TestUtil {
   private static <T> T getData(String jsonPathFile, String title, String caseName, String nodeKey,
       Class<T> clazz) {
     try {
-      JsonNode jsonData = objectMapper.readTree(new File(jsonPathFile));
-      JsonNode requestNode = jsonData.path(title).path(caseName).path(nodeKey);
-      
-      JsonNode replacedNode = replaceTemplateValues(requestNode);
+      JsonNode replacedNode = FixtureRepository.getResolved(jsonPathFile, title, caseName, nodeKey);
       if (replacedNode.isObject()) {
         prepareFixtureNode((ObjectNode) replacedNode, clazz);
       }
@@ -329,25 +318,13 @@ public final class TestUtil {
 
   private static <T> boolean processAssertResponse(String jsonPathFile, String title, String data,
       T responseBody, Map<String, Object> variableDict, String bodyType) throws IOException {
-    JsonNode expectedData = getResponse(jsonPathFile, title, data, JsonNode.class);
-    JsonNode processedExpectedData = replaceVariables(expectedData, variableDict);
-
-    JsonNode actualResponse;
-
-    log.info("Processing response\n");
-
-    if (responseBody instanceof String) {
-      actualResponse = objectMapper.readTree((String) responseBody);
-    } else if (responseBody instanceof JsonNode) {
-      actualResponse = (JsonNode) responseBody;
-    } else {
-      actualResponse = objectMapper.valueToTree(responseBody);
-    }
-
-    List<Difference> diffPaths = new ArrayList<>();
-    compareJsonObjects(processedExpectedData, actualResponse, "", diffPaths);
+    long start = System.nanoTime();
+    List<Difference> diffPaths = FixtureRepository.expectation(jsonPathFile, title, data)
+        .match(responseBody, variableDict);
+    long elapsed = System.nanoTime() - start;
 
     if (CollectionUtils.isNotEmpty(diffPaths)) {
+      AssertionReport.failed(jsonPathFile, title, data, bodyType, elapsed, diffPaths);
       StringBuilder errorMsg = new StringBuilder("Assertion failed. Differences found in ").append(
           bodyType).append(":\n");
       for (Difference diff : diffPaths) {
@@ -357,8 +334,18 @@ public final class TestUtil {
       }
       throw new AssertionError(errorMsg.toString());
     }
-    log.info("Assertion passed \n Actual Response: \n{} \nExpected Response: \n{}",
-            actualResponse, processedExpectedData);
+    AssertionReport.passed(jsonPathFile, title, data, bodyType, elapsed);
+
+    // Both payloads are only rendered when someone is reading them.
+    if (log.isDebugEnabled()) {
+      JsonNode actualResponse = responseBody instanceof String
+          ? objectMapper.readTree((String) responseBody)
+          : objectMapper.valueToTree(responseBody);
+      JsonNode processedExpectedData = replaceVariables(
+          getResponse(jsonPathFile, title, data, JsonNode.class), variableDict);
+      log.debug("Assertion passed \n Actual Response: \n{} \nExpected Response: \n{}",
+              actualResponse, processedExpectedData);
+    }
 
     return true;
   }
@@ -366,17 +353,18 @@ public final class TestUtil {
   public static void assertResponse(String jsonPathFile, Response response, String title) {
     JsonPath jsonPath = JsonPath.from(new File(jsonPathFile));
     Map<String, String> assertion = jsonPath.get(title + ".response");
+    String body = response.getBody().asString();
 
-    log.info("Assertion: {}", assertion);
-    log.info("Response: {}", response.getBody().asString());
+    log.debug("Assertion: {}", assertion);
+    log.debug("Response: {}", body);
 
-    Assertions.assertTrue(response.getBody().asString().contains(assertion.get("responseCode")),
+    Assertions.assertTrue(body.contains(assertion.get("responseCode")),
         "Response does not contain expected assertion: " + assertion.toString()
-            + "\nActual response: " + response.getBody().asString());
+            + "\nActual response: " + body);
 
-    Assertions.assertTrue(response.getBody().asString().contains(assertion.get("responseMessage")),
+    Assertions.assertTrue(body.contains(assertion.get("responseMessage")),
         "Response does not contain expected assertion: " + assertion.toString()
-            + "\nActual response: " + response.getBody().asString());
+            + "\nActual response: " + body);
   }
 
   public static class Difference {
@@ -413,6 +401,7 @@ public final class TestUtil {
   public static void delay(int timeout) {
     try {
       Thread.sleep(timeout);
+      PerfReport.slept(timeout);
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
     }
@@ -0,0 +1,168 @@
+package id.dana.util.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import id.dana.util.FixtureRepository;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code title} section of one component fixture, seen from the server side: picks the case a
+ * request corresponds to and hands out that case's {@code response} node.
+ *
+ * <p>A case matches when every literal leaf of its {@code request} equals the incoming value;
+ * {@code ${...}} placeholders, empty strings and {@code null} act as wildcards. The most specific
+ * match wins and ties go to the successful case, so the error scenarios that are driven by request
+ * data ("frozen account" numbers, oversized amounts, bad service codes) replay their own response
+ * while every other request gets the success response.
+ */
+final class FixtureCases {
+
+  private final String jsonPathFile;
+  private final String title;
+
+  FixtureCases(String fixture, String title) {
+    URL resource = FixtureCases.class.getResource("/request/components/" + fixture);
+    if (resource == null) {
+      throw new IllegalStateException("Fixture /request/components/" + fixture + " is not on the classpath");
+    }
+    this.jsonPathFile = resource.getPath();
+    this.title = title;
+  }
+
+  String title() {
+    return title;
+  }
+
+  /** Case whose request best matches {@code body}; falls back to the first successful case. */
+  String match(JsonNode body) {
+    String best = null;
+    int bestScore = -1;
+    boolean bestSuccess = false;
+    for (String caseName : cases()) {
+      JsonNode request = FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
+      int score = score(request, body);
+      if (score < 0) {
+        continue;
+      }
+      boolean success = isSuccess(caseName);
+      if (score > bestScore || (score == bestScore && success && !bestSuccess)) {
+        best = caseName;
+        bestScore = score;
+        bestSuccess = success;
+      }
+    }
+    return best != null ? best : firstSuccess();
+  }
+
+  String firstSuccess() {
+    for (String caseName : cases()) {
+      if (isSuccess(caseName)) {
+        return caseName;
+      }
+    }
+    return null;
+  }
+
+  /** First successful case whose response has {@code field} equal to {@code value}. */
+  String successWith(String field, String value) {
+    for (String caseName : cases()) {
+      if (isSuccess(caseName) && value.equalsIgnoreCase(response(caseName).path(field).asText())) {
+        return caseName;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * First case whose {@code responseCode} is {@code httpStatus + <service code> + caseCode},
+   * preferring one whose message mentions {@code hint}.
+   */
+  String withCode(int httpStatus, String caseCode, String hint) {
+    Pattern code = Pattern.compile(httpStatus + "\\d{2}" + caseCode);
+    String fallback = null;
+    for (String caseName : cases()) {
+      JsonNode response = response(caseName);
+      if (!code.matcher(response.path("responseCode").asText()).matches()) {
+        continue;
+      }
+      if (hint == null || response.path("responseMessage").asText().contains(hint)) {
+        return caseName;
+      }
+      if (fallback == null) {
+        fallback = caseName;
+      }
+    }
+    return fallback;
+  }
+
+  boolean isSuccess(String caseName) {
+    return caseName != null && response(caseName).path("responseCode").asText().startsWith("2");
+  }
+
+  /** Two-digit SNAP service code of this title, taken from any case's response code. */
+  String serviceCode() {
+    for (String caseName : cases()) {
+      String code = response(caseName).path("responseCode").asText();
+      if (code.length() == 7) {
+        return code.substring(3, 5);
+      }
+    }
+    return "00";
+  }
+
+  /** Fresh, mutable copy of the case's response with environment placeholders resolved. */
+  ObjectNode response(String caseName) {
+    JsonNode response = FixtureRepository.getResolved(jsonPathFile, title, caseName, "response");
+    return response.isObject() ? (ObjectNode) response : LocalJson.MAPPER.createObjectNode();
+  }
+
+  private List<String> cases() {
+    return FixtureRepository.caseNames(jsonPathFile, title);
+  }
+
+  /**
+   * Number of literal leaves in {@code expected} that {@code actual} matches, or {@code -1} as soon
+   * as one differs.
+   */
+  static int score(JsonNode expected, JsonNode actual) {
+    if (expected == null || expected.isMissingNode() || expected.isNull()) {
+      return 0;
+    }
+    if (expected.isObject()) {
+      int total = 0;
+      Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (field.getKey().startsWith("@")) {
+          continue;
+        }
+        int score = score(field.getValue(), actual.path(field.getKey()));
+        if (score < 0) {
+          return -1;
+        }
+        total += score;
+      }
+      return total;
+    }
+    if (expected.isArray()) {
+      int total = 0;
+      for (int i = 0; i < expected.size(); i++) {
+        int score = score(expected.get(i), actual.path(i));
+        if (score < 0) {
+          return -1;
+        }
+        total += score;
+      }
+      return total;
+    }
+    String text = expected.asText();
+    if (text.isEmpty() || text.contains("${")) {
+      return 0;
+    }
+    return actual.isValueNode() && text.equals(actual.asText()) ? 1 : -1;
+  }
+}
@@ -0,0 +1,126 @@
+package id.dana.util.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fills the {@code ${...}} placeholders left in fixture responses: names found in the request are
+ * echoed back, {@code ${valueFromServer}} and anything else unknown get a generated value.
+ */
+final class LocalJson {
+
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)\\}");
+  private static final DateTimeFormatter SNAP_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX");
+  private static final ZoneId JAKARTA = ZoneId.of("Asia/Jakarta");
+
+  private LocalJson() {
+  }
+
+  static void fill(JsonNode node, JsonNode request) {
+    if (node.isObject()) {
+      ObjectNode object = (ObjectNode) node;
+      Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (field.getValue().isTextual()) {
+          field.setValue(TextNode.valueOf(resolve(field.getKey(), field.getValue().asText(), request)));
+        } else {
+          fill(field.getValue(), request);
+        }
+      }
+    } else if (node.isArray()) {
+      ArrayNode array = (ArrayNode) node;
+      for (int i = 0; i < array.size(); i++) {
+        if (array.get(i).isTextual()) {
+          array.set(i, TextNode.valueOf(resolve("", array.get(i).asText(), request)));
+        } else {
+          fill(array.get(i), request);
+        }
+      }
+    }
+  }
+
+  private static String resolve(String fieldName, String text, JsonNode request) {
+    if (!text.contains("${")) {
+      return text;
+    }
+    Matcher matcher = PLACEHOLDER.matcher(text);
+    StringBuffer out = new StringBuffer();
+    while (matcher.find()) {
+      String name = matcher.group(1);
+      String value = "valueFromServer".equals(name) ? null : referenceFrom(request, name);
+      if (value == null) {
+        value = generate(fieldName);
+      }
+      matcher.appendReplacement(out, Matcher.quoteReplacement(value));
+    }
+    matcher.appendTail(out);
+    return out.toString();
+  }
+
+  /**
+   * Value of {@code name} anywhere in the request; partner references also answer for their
+   * {@code original...} counterpart, since queries and cancels echo the order's reference.
+   */
+  static String referenceFrom(JsonNode request, String name) {
+    String value = text(request, name);
+    if (value == null && name.startsWith("original")) {
+      value = text(request, Character.toLowerCase(name.charAt(8)) + name.substring(9));
+    }
+    if (value == null && !name.startsWith("original")) {
+      value = text(request, "original" + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+    }
+    return value;
+  }
+
+  /** First non-empty textual value of {@code field} in a depth-first walk of {@code node}. */
+  static String text(JsonNode node, String field) {
+    if (node == null || !node.isContainerNode()) {
+      return null;
+    }
+    JsonNode direct = node.get(field);
+    if (direct != null && direct.isValueNode() && !direct.asText().isEmpty()) {
+      return direct.asText();
+    }
+    for (JsonNode child : node) {
+      String nested = text(child, field);
+      if (nested != null) {
+        return nested;
+      }
+    }
+    return null;
+  }
+
+  static String generate(String fieldName) {
+    if (fieldName.endsWith("Time") || fieldName.endsWith("Date")) {
+      return now();
+    }
+    return digits(20);
+  }
+
+  static String now() {
+    return ZonedDateTime.now(JAKARTA).format(SNAP_TIME);
+  }
+
+  static String digits(int length) {
+    StringBuilder out = new StringBuilder(length);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < length; i++) {
+      out.append((char) ('0' + random.nextInt(10)));
+    }
+    return out.toString();
+  }
+}
@@ -0,0 +1,130 @@
+package id.dana.util.local;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory state behind the stateful endpoints: orders by partner reference, refunds, transfers
+ * and issued OAuth auth codes. Lives as long as the server, i.e. one test JVM.
+ */
+final class LocalLedger {
+
+  /** SNAP {@code latestTransactionStatus} / {@code transactionStatusDesc} pairs an order moves through. */
+  enum OrderStatus {
+    SUCCESS("00"),
+    INIT("01"),
+    PAYING("02"),
+    CANCELLED("05");
+
+    private final String code;
+
+    OrderStatus(String code) {
+      this.code = code;
+    }
+
+    String code() {
+      return code;
+    }
+  }
+
+  static final class Order {
+
+    final String partnerReferenceNo;
+    final String referenceNo;
+    final String amount;
+    final String paymentCode;
+    volatile OrderStatus status = OrderStatus.INIT;
+
+    private Order(String partnerReferenceNo, String amount) {
+      this.partnerReferenceNo = partnerReferenceNo;
+      this.amount = amount;
+      this.referenceNo = LocalJson.digits(20);
+      this.paymentCode = LocalJson.digits(16);
+    }
+  }
+
+  private final Map<String, Order> orders = new ConcurrentHashMap<>();
+  private final Map<String, Order> ordersByPaymentCode = new ConcurrentHashMap<>();
+  private final Map<String, String> refundAmounts = new ConcurrentHashMap<>();
+  private final Map<String, Transfer> transfers = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> authCodes = new ConcurrentHashMap<>();
+
+  /**
+   * Registers the order unless it exists; returns the existing order so callers can detect an
+   * inconsistent retry.
+   */
+  Order createOrder(String partnerReferenceNo, String amount) {
+    Order created = new Order(partnerReferenceNo, amount);
+    Order existing = orders.putIfAbsent(partnerReferenceNo, created);
+    if (existing != null) {
+      return existing;
+    }
+    ordersByPaymentCode.put(created.paymentCode, created);
+    return created;
+  }
+
+  Order order(String partnerReferenceNo) {
+    return partnerReferenceNo == null ? null : orders.get(partnerReferenceNo);
+  }
+
+  /** Marks the order paid; returns {@code false} when no such order exists. */
+  boolean pay(String partnerReferenceNo) {
+    Order order = order(partnerReferenceNo);
+    if (order == null) {
+      return false;
+    }
+    order.status = OrderStatus.SUCCESS;
+    return true;
+  }
+
+  boolean payByPaymentCode(String paymentCode) {
+    Order order = paymentCode == null ? null : ordersByPaymentCode.get(paymentCode);
+    return order != null && pay(order.partnerReferenceNo);
+  }
+
+  /**
+   * Records a refund; returns the amount of an earlier refund with the same reference, or
+   * {@code null} for a new one.
+   */
+  String refund(String partnerRefundNo, String amount) {
+    return refundAmounts.putIfAbsent(partnerRefundNo, amount);
+  }
+
+  /**
+   * Records a transfer; returns the earlier transfer with the same reference, or {@code null} for a
+   * new one.
+   */
+  Transfer transfer(String partnerReferenceNo, String amount, boolean succeeded) {
+    return transfers.putIfAbsent(partnerReferenceNo, new Transfer(amount, succeeded));
+  }
+
+  Transfer transfer(String partnerReferenceNo) {
+    return partnerReferenceNo == null ? null : transfers.get(partnerReferenceNo);
+  }
+
+  String issueAuthCode() {
+    String authCode = LocalJson.digits(40);
+    authCodes.put(authCode, Boolean.FALSE);
+    return authCode;
+  }
+
+  /** Consumes an auth code; {@code false} if it was never issued or was already exchanged. */
+  boolean redeemAuthCode(String authCode) {
+    return authCode != null && authCodes.replace(authCode, Boolean.FALSE, Boolean.TRUE);
+  }
+
+  boolean isRedeemed(String authCode) {
+    return authCode != null && Boolean.TRUE.equals(authCodes.get(authCode));
+  }
+
+  static final class Transfer {
+
+    final String amount;
+    final boolean succeeded;
+
+    private Transfer(String amount, boolean succeeded) {
+      this.amount = amount;
+      this.succeeded = succeeded;
+    }
+  }
+}
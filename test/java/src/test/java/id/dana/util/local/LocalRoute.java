@@ -0,0 +1,132 @@
+package id.dana.util.local;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Path-to-fixture table of the stand-in server.
+ *
+ * <p>Paths are matched by suffix with any {@code .htm} extension ignored, in declaration order, so
+ * the Payment Gateway paths are listed before the shorter Widget paths they end with. This table is
+ * the one place to touch when the SDK moves an endpoint.
+ */
+final class LocalRoute {
+
+  static final String PAYMENT_GATEWAY = "PaymentGateway.json";
+  static final String WIDGET = "Widget.json";
+  static final String DISBURSEMENT = "Disbursement.json";
+  static final String MERCHANT_MANAGEMENT = "MerchantManagement.json";
+
+  /** What the server does with a request once the fixture case is chosen. */
+  enum Operation {
+    CANNED,
+    CREATE_ORDER,
+    QUERY_ORDER,
+    CANCEL_ORDER,
+    REFUND_ORDER,
+    APPLY_TOKEN,
+    TRANSFER,
+    TRANSFER_STATUS,
+    OPEN_API,
+    MERCHANT_INFO,
+    SANDBOX_TOOLS,
+    BNI_TOP_UP
+  }
+
+  private static final List<LocalRoute> ROUTES = Collections.unmodifiableList(Arrays.asList(
+      // Payment Gateway
+      snap("/payment-gateway/v1.0/debit/payment-host-to-host", PAYMENT_GATEWAY, "CreateOrder", Operation.CREATE_ORDER),
+      snap("/payment-gateway/v1.0/debit/status", PAYMENT_GATEWAY, "QueryPayment", Operation.QUERY_ORDER),
+      snap("/payment-gateway/v1.0/debit/cancel", PAYMENT_GATEWAY, "CancelOrder", Operation.CANCEL_ORDER),
+      snap("/payment-gateway/v1.0/debit/refund", PAYMENT_GATEWAY, "RefundOrder", Operation.REFUND_ORDER),
+      snap("/consult-pay", PAYMENT_GATEWAY, "ConsultPay", Operation.CANNED),
+      // Widget
+      snap("/v1.0/access-token/b2b2c", WIDGET, "ApplyToken", Operation.APPLY_TOKEN),
+      snap("/v1.0/debit/payment-host-to-host", WIDGET, "Payment", Operation.CREATE_ORDER),
+      snap("/v1.1/debit/status", WIDGET, "QueryOrder", Operation.QUERY_ORDER),
+      snap("/v1.0/debit/status", WIDGET, "QueryOrder", Operation.QUERY_ORDER),
+      snap("/v1.0/debit/cancel", WIDGET, "CancelOrder", Operation.CANCEL_ORDER),
+      snap("/v1.0/debit/refund", WIDGET, "RefundOrder", Operation.REFUND_ORDER),
+      snap("/v1.0/balance-inquiry", WIDGET, "BalanceInquiry", Operation.CANNED),
+      snap("/v1.1/qr/apply-ott", WIDGET, "ApplyOtt", Operation.CANNED),
+      snap("/v1.0/qr/apply-ott", WIDGET, "ApplyOtt", Operation.CANNED),
+      snap("/v1.0/registration-account-unbinding", WIDGET, "AccountUnbinding", Operation.CANNED),
+      snap("/v1.0/transaction-history-list", WIDGET, "TransactionList", Operation.CANNED),
+      // Disbursement
+      snap("/v1.0/emoney/account-inquiry", DISBURSEMENT, "DanaAccountInquiry", Operation.CANNED),
+      snap("/v1.0/emoney/topup-status", DISBURSEMENT, "TransferToDanaInquiryStatus", Operation.TRANSFER_STATUS),
+      snap("/v1.0/emoney/topup", DISBURSEMENT, "TransferToDana", Operation.TRANSFER),
+      snap("/v1.0/emoney/bank-account-inquiry", DISBURSEMENT, "BankAccountInquiry", Operation.CANNED),
+      snap("/v1.0/emoney/transfer-bank-status", DISBURSEMENT, "TransferToBankInquiryStatus", Operation.TRANSFER_STATUS),
+      snap("/v1.0/emoney/transfer-bank", DISBURSEMENT, "TransferToBank", Operation.TRANSFER),
+      // Merchant Management (open API envelope, not SNAP-signed)
+      open("/queryMerchantInfo", null, Operation.MERCHANT_INFO),
+      open("/shop/createShop", "Shop", Operation.OPEN_API),
+      open("/createShop", "Shop", Operation.OPEN_API),
+      open("/division/createDivision", "Division", Operation.OPEN_API),
+      open("/createDivision", "Division", Operation.OPEN_API),
+      // Tooling outside the SDK
+      open("/merchant-portal-app/api/sandbox-tools/execute", null, Operation.SANDBOX_TOOLS),
+      open("/ifcsupergw/bni/topup/merchant/request", null, Operation.BNI_TOP_UP)));
+
+  private final String pathSuffix;
+  private final String fixture;
+  private final String title;
+  private final Operation operation;
+  private final boolean signed;
+
+  private LocalRoute(String pathSuffix, String fixture, String title, Operation operation, boolean signed) {
+    this.pathSuffix = pathSuffix;
+    this.fixture = fixture;
+    this.title = title;
+    this.operation = operation;
+    this.signed = signed;
+  }
+
+  private static LocalRoute snap(String pathSuffix, String fixture, String title, Operation operation) {
+    return new LocalRoute(pathSuffix, fixture, title, operation, true);
+  }
+
+  private static LocalRoute open(String pathSuffix, String title, Operation operation) {
+    return new LocalRoute(pathSuffix, MERCHANT_MANAGEMENT, title, operation, false);
+  }
+
+  /** Route for {@code path}, or {@code null} when the stand-in does not serve it. */
+  static LocalRoute find(String path) {
+    String normalized = stripExtension(path);
+    for (LocalRoute route : ROUTES) {
+      if (normalized.endsWith(route.pathSuffix)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  private static String stripExtension(String path) {
+    String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    return trimmed.endsWith(".htm") ? trimmed.substring(0, trimmed.length() - 4) : trimmed;
+  }
+
+  String fixture() {
+    return fixture;
+  }
+
+  String title() {
+    return title;
+  }
+
+  Operation operation() {
+    return operation;
+  }
+
+  /** Whether requests carry a SNAP {@code X-SIGNATURE} that the server checks. */
+  boolean signed() {
+    return signed;
+  }
+
+  @Override
+  public String toString() {
+    return operation + " " + pathSuffix + (title != null ? " (" + fixture + "#" + title + ")" : "");
+  }
+}
@@ -0,0 +1,125 @@
+package id.dana.util.local;
+
+import id.dana.invoker.model.constant.EnvKey;
+import id.dana.util.ConfigUtil;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+/**
+ * Switch for running the suite against the embedded {@link LocalSandboxServer} instead of the DANA
+ * sandbox: {@code mvn test -Denv=LOCAL} (or {@code ENV=LOCAL} in {@code .env}).
+ *
+ * <p>When enabled, {@link #interceptor()} sits on the root HTTP client and sends every
+ * {@code *.dana.id} call to the local server; browser steps (paying an order, OAuth consent) are
+ * short-circuited through {@link #pay} and {@link #authorize}, so no network or Playwright is needed.
+ */
+public final class LocalSandbox {
+
+  private static final boolean ENABLED =
+      "LOCAL".equalsIgnoreCase(System.getProperty("env", ConfigUtil.getConfig(EnvKey.ENV, "")));
+
+  private LocalSandbox() {
+  }
+
+  public static boolean isEnabled() {
+    return ENABLED;
+  }
+
+  public static String baseUrl() {
+    return Holder.SERVER.baseUrl();
+  }
+
+  /** Application interceptor redirecting DANA hosts to the local server. */
+  public static Interceptor interceptor() {
+    return chain -> {
+      Request request = chain.request();
+      HttpUrl url = request.url();
+      if (!isDanaHost(url.host())) {
+        return chain.proceed(request);
+      }
+      HttpUrl local = url.newBuilder()
+          .scheme("http")
+          .host(LocalSandboxServer.HOST)
+          .port(Holder.SERVER.port())
+          .build();
+      return chain.proceed(request.newBuilder().url(local).build());
+    };
+  }
+
+  /** {@code url} pointed at the local server when enabled and it targets a DANA host; otherwise unchanged. */
+  public static String rewrite(String url) {
+    if (!ENABLED) {
+      return url;
+    }
+    try {
+      URI uri = new URI(url);
+      if (uri.getHost() == null || !isDanaHost(uri.getHost())) {
+        return url;
+      }
+      return new URI("http", null, LocalSandboxServer.HOST, Holder.SERVER.port(), uri.getPath(),
+          uri.getQuery(), uri.getFragment()).toString();
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException("Invalid URL " + url, e);
+    }
+  }
+
+  /** Stands in for paying on the DANA checkout page: marks the order behind {@code redirectUrl} paid. */
+  public static void pay(String redirectUrl) {
+    String partnerReferenceNo = queryParameter(redirectUrl, "partnerReferenceNo");
+    if (partnerReferenceNo == null || !Holder.SERVER.ledger().pay(partnerReferenceNo)) {
+      throw new IllegalStateException("No local order behind redirect URL " + redirectUrl);
+    }
+  }
+
+  /** Stands in for the OAuth consent page: returns a fresh auth code accepted by apply-token. */
+  public static String authorize(String oauthUrl) {
+    return Holder.SERVER.ledger().issueAuthCode();
+  }
+
+  private static boolean isDanaHost(String host) {
+    return host.equals("dana.id") || host.endsWith(".dana.id");
+  }
+
+  private static String queryParameter(String url, String name) {
+    String query = URI.create(url).getRawQuery();
+    if (query == null) {
+      return null;
+    }
+    for (String pair : query.split("&")) {
+      int eq = pair.indexOf('=');
+      if (eq > 0 && pair.substring(0, eq).equals(name)) {
+        try {
+          return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Lazy holder: the server starts on first use and stops with the JVM. */
+  private static final class Holder {
+
+    private static final LocalSandboxServer SERVER;
+
+    static {
+      try {
+        SERVER = LocalSandboxServer.start(
+            Integer.parseInt(ConfigUtil.getConfig("LOCAL_SANDBOX_PORT", "0")),
+            Boolean.parseBoolean(ConfigUtil.getConfig("LOCAL_SANDBOX_VERIFY_SIGNATURE", "true")));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not start the local sandbox server", e);
+      }
+      Runtime.getRuntime().addShutdownHook(new Thread(SERVER::stop, "local-sandbox-stop"));
+    }
+  }
+}
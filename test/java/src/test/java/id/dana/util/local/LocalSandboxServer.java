@@ -0,0 +1,469 @@
+package id.dana.util.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import id.dana.util.ConfigUtil;
+import id.dana.util.local.LocalLedger.Order;
+import id.dana.util.local.LocalLedger.OrderStatus;
+import id.dana.util.local.LocalLedger.Transfer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Embedded stand-in for the DANA sandbox hosts, serving the endpoints in {@link LocalRoute} from
+ * the component fixtures.
+ *
+ * <p>Every SNAP request has its {@code X-TIMESTAMP} and {@code X-SIGNATURE} checked first, then
+ * the fixture case matching the body is chosen (see {@link FixtureCases}). Order, refund, transfer
+ * and token endpoints additionally consult {@link LocalLedger}, so a created order can be queried,
+ * paid, cancelled and refunded with the same transitions and error codes as the real sandbox.
+ */
+final class LocalSandboxServer {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalSandboxServer.class);
+
+  static final String HOST = "127.0.0.1";
+  static final String PAY_PATH = "/local/pay";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final LocalLedger ledger = new LocalLedger();
+  private final SnapSignatureVerifier verifier;
+  private final Map<String, FixtureCases> fixtures = new ConcurrentHashMap<>();
+
+  private LocalSandboxServer(HttpServer server, ExecutorService executor, SnapSignatureVerifier verifier) {
+    this.server = server;
+    this.executor = executor;
+    this.verifier = verifier;
+  }
+
+  static LocalSandboxServer start(int port, boolean verifySignatures) throws IOException {
+    HttpServer server = HttpServer.create(new InetSocketAddress(HOST, port), 0);
+    ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "local-sandbox");
+      thread.setDaemon(true);
+      return thread;
+    });
+    SnapSignatureVerifier verifier = verifySignatures ? SnapSignatureVerifier.forMerchantKey() : null;
+    LocalSandboxServer sandbox = new LocalSandboxServer(server, executor, verifier);
+    server.createContext("/", sandbox::handle);
+    server.setExecutor(executor);
+    server.start();
+    log.info("[LOCAL] Sandbox stand-in listening on {}", sandbox.baseUrl());
+    return sandbox;
+  }
+
+  void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  int port() {
+    return server.getAddress().getPort();
+  }
+
+  String baseUrl() {
+    return "http://" + HOST + ":" + port();
+  }
+
+  LocalLedger ledger() {
+    return ledger;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    URI uri = exchange.getRequestURI();
+    String path = uri.getRawPath();
+    Reply reply;
+    try {
+      byte[] raw = readAll(exchange.getRequestBody());
+      JsonNode body = raw.length == 0 ? LocalJson.MAPPER.createObjectNode() : LocalJson.MAPPER.readTree(raw);
+      LocalRoute route = LocalRoute.find(path);
+      if (route == null) {
+        reply = Reply.of(404, LocalJson.MAPPER.createObjectNode()
+            .put("responseCode", "4040000")
+            .put("responseMessage", "No local route for " + path));
+      } else {
+        reply = route.signed() ? checkHeaders(exchange, route, raw, body) : null;
+        if (reply == null) {
+          reply = dispatch(route, body);
+        }
+      }
+      log.debug("[LOCAL] {} {} -> {} {}", exchange.getRequestMethod(), path, reply.status, route);
+    } catch (Exception e) {
+      log.error("[LOCAL] {} {} failed", exchange.getRequestMethod(), path, e);
+      reply = Reply.of(500, LocalJson.MAPPER.createObjectNode()
+          .put("responseCode", "5000000")
+          .put("responseMessage", "Local sandbox error: " + e.getMessage()));
+    }
+    send(exchange, reply);
+  }
+
+  private Reply checkHeaders(HttpExchange exchange, LocalRoute route, byte[] raw, JsonNode body)
+      throws IOException {
+    FixtureCases cases = cases(route);
+    String timestamp = exchange.getRequestHeaders().getFirst("X-TIMESTAMP");
+    if (timestamp == null || timestamp.isEmpty()) {
+      return error(cases, 400, "02", "Invalid Mandatory Field X-TIMESTAMP", "X-TIMESTAMP", body);
+    }
+    try {
+      OffsetDateTime.parse(timestamp);
+    } catch (DateTimeParseException e) {
+      return error(cases, 400, "01", "Invalid Field Format X-TIMESTAMP", "X-TIMESTAMP", body);
+    }
+    if (verifier == null) {
+      return null;
+    }
+    URI uri = exchange.getRequestURI();
+    String pathAndQuery = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+    String minified = raw.length == 0 ? null : LocalJson.MAPPER.writeValueAsString(body);
+    boolean valid = verifier.verify(exchange.getRequestMethod(), pathAndQuery, raw, minified, timestamp,
+        route.operation() == LocalRoute.Operation.APPLY_TOKEN,
+        exchange.getRequestHeaders().getFirst("X-CLIENT-KEY"),
+        exchange.getRequestHeaders().getFirst("X-SIGNATURE"));
+    return valid ? null : error(cases, 401, "00", "Unauthorized. Invalid Signature", "Signature", body);
+  }
+
+  private Reply dispatch(LocalRoute route, JsonNode body) {
+    switch (route.operation()) {
+      case CREATE_ORDER:
+        return createOrder(cases(route), body);
+      case QUERY_ORDER:
+        return queryOrder(cases(route), body);
+      case CANCEL_ORDER:
+        return cancelOrder(cases(route), body);
+      case REFUND_ORDER:
+        return refundOrder(cases(route), body);
+      case APPLY_TOKEN:
+        return applyToken(cases(route), body);
+      case TRANSFER:
+        return transfer(cases(route), body);
+      case TRANSFER_STATUS:
+        return transferStatus(cases(route), body);
+      case OPEN_API:
+        return openApi(cases(route), body);
+      case MERCHANT_INFO:
+        return merchantInfo(body);
+      case SANDBOX_TOOLS:
+        return sandboxTools(body);
+      case BNI_TOP_UP:
+        return Reply.of(200, LocalJson.MAPPER.createObjectNode().put("status", "000"));
+      case CANNED:
+      default:
+        FixtureCases cases = cases(route);
+        return reply(cases, cases.match(body), body);
+    }
+  }
+
+  private Reply createOrder(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    String partnerReferenceNo = LocalJson.text(body, "partnerReferenceNo");
+    if (!cases.isSuccess(matched) || partnerReferenceNo == null) {
+      return reply(cases, matched, body);
+    }
+    String amount = amount(body);
+    Order order = ledger.createOrder(partnerReferenceNo, amount);
+    if (!Objects.equals(order.amount, amount)) {
+      return error(cases, 404, "18", "Inconsistent Request", null, body);
+    }
+    ObjectNode response = response(cases, matched, body);
+    response.put("referenceNo", order.referenceNo);
+    response.put("partnerReferenceNo", partnerReferenceNo);
+    response.put("webRedirectUrl", baseUrl() + PAY_PATH + "?partnerReferenceNo=" + encode(partnerReferenceNo));
+    objectField(response, "additionalInfo").put("paymentCode", order.paymentCode);
+    return Reply.of(response);
+  }
+
+  private Reply queryOrder(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    if (!cases.isSuccess(matched)) {
+      return reply(cases, matched, body);
+    }
+    Order order = ledger.order(LocalJson.referenceFrom(body, "originalPartnerReferenceNo"));
+    if (order == null) {
+      return error(cases, 404, "01", "Transaction Not Found", null, body);
+    }
+    String byStatus = cases.successWith("transactionStatusDesc", order.status.name());
+    ObjectNode response = response(cases, byStatus != null ? byStatus : matched, body);
+    response.put("originalPartnerReferenceNo", order.partnerReferenceNo);
+    response.put("originalReferenceNo", order.referenceNo);
+    response.put("latestTransactionStatus", order.status.code());
+    response.put("transactionStatusDesc", order.status.name());
+    return Reply.of(response);
+  }
+
+  private Reply cancelOrder(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    if (!cases.isSuccess(matched)) {
+      return reply(cases, matched, body);
+    }
+    Order order = ledger.order(LocalJson.referenceFrom(body, "originalPartnerReferenceNo"));
+    if (order == null) {
+      return error(cases, 404, "01", "Transaction Not Found", null, body);
+    }
+    // Only an unpaid order can be cancelled; the sandbox rejects paid, refunded or cancelled ones
+    if (order.status != OrderStatus.INIT) {
+      return error(cases, 404, "00", "Invalid Transaction Status", null, body);
+    }
+    order.status = OrderStatus.CANCELLED;
+    ObjectNode response = response(cases, matched, body);
+    response.put("originalPartnerReferenceNo", order.partnerReferenceNo);
+    response.put("originalReferenceNo", order.referenceNo);
+    return Reply.of(response);
+  }
+
+  private Reply refundOrder(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    if (!cases.isSuccess(matched)) {
+      return reply(cases, matched, body);
+    }
+    Order order = ledger.order(LocalJson.referenceFrom(body, "originalPartnerReferenceNo"));
+    if (order == null) {
+      // Payment gateway fixtures document an unknown order as xx01, the widget ones as xx12
+      return cases.withCode(404, "12", null) != null
+          ? error(cases, 404, "12", "Invalid Bill", null, body)
+          : error(cases, 404, "01", "Transaction Not Found", null, body);
+    }
+    if (order.status != OrderStatus.SUCCESS) {
+      return error(cases, 404, "00", "Invalid Transaction Status", null, body);
+    }
+    String partnerRefundNo = LocalJson.text(body, "partnerRefundNo");
+    String amount = refundAmount(body);
+    String previous = partnerRefundNo == null ? null : ledger.refund(partnerRefundNo, amount);
+    if (previous != null && !previous.equals(amount)) {
+      return error(cases, 404, "18", "Inconsistent Request", null, body);
+    }
+    ObjectNode response = response(cases, matched, body);
+    response.put("originalPartnerReferenceNo", order.partnerReferenceNo);
+    response.put("originalReferenceNo", order.referenceNo);
+    return Reply.of(response);
+  }
+
+  private Reply applyToken(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    if (!cases.isSuccess(matched)) {
+      return reply(cases, matched, body);
+    }
+    String authCode = LocalJson.text(body, "authCode");
+    if (ledger.isRedeemed(authCode)) {
+      return error(cases, 401, "00", "Unauthorized. Auth Code Used", "Used", body);
+    }
+    if (!ledger.redeemAuthCode(authCode)) {
+      return error(cases, 401, "00", "Unauthorized. Invalid Auth Code", null, body);
+    }
+    ObjectNode response = response(cases, matched, body);
+    response.put("tokenType", "Bearer");
+    response.put("accessToken", UUID.randomUUID().toString().replace("-", ""));
+    response.put("accessTokenExpiryTime", OffsetDateTime.now().plusDays(1).toString());
+    response.put("refreshToken", UUID.randomUUID().toString().replace("-", ""));
+    response.put("refreshTokenExpiryTime", OffsetDateTime.now().plusDays(7).toString());
+    return Reply.of(response);
+  }
+
+  private Reply transfer(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    String partnerReferenceNo = LocalJson.text(body, "partnerReferenceNo");
+    if (partnerReferenceNo == null) {
+      return reply(cases, matched, body);
+    }
+    String amount = amount(body);
+    Transfer previous = ledger.transfer(partnerReferenceNo, amount, cases.isSuccess(matched));
+    if (previous != null && !Objects.equals(previous.amount, amount)) {
+      return error(cases, 404, "18", "Inconsistent Request", null, body);
+    }
+    return reply(cases, matched, body);
+  }
+
+  private Reply transferStatus(FixtureCases cases, JsonNode body) {
+    String matched = cases.match(body);
+    if (!cases.isSuccess(matched)) {
+      return reply(cases, matched, body);
+    }
+    String partnerReferenceNo = LocalJson.referenceFrom(body, "originalPartnerReferenceNo");
+    Transfer transfer = ledger.transfer(partnerReferenceNo);
+    if (transfer == null) {
+      return error(cases, 404, "01", "Transaction Not Found", null, body);
+    }
+    String byStatus = cases.successWith("latestTransactionStatus", transfer.succeeded ? "00" : "06");
+    ObjectNode response = response(cases, byStatus != null ? byStatus : matched, body);
+    response.put("originalPartnerReferenceNo", partnerReferenceNo);
+    return Reply.of(response);
+  }
+
+  /** Merchant Management open API: fixture body inside the {@code response.head/body} envelope. */
+  private Reply openApi(FixtureCases cases, JsonNode body) {
+    JsonNode requestBody = body.path("request").path("body");
+    String caseName = cases.match(requestBody);
+    return Reply.of(200, envelope(body, caseName != null ? response(cases, caseName, requestBody)
+        : successResult()));
+  }
+
+  /** Reports a deposit far above the top-up threshold so disbursement runs never top up locally. */
+  private Reply merchantInfo(JsonNode body) {
+    ObjectNode result = successResult();
+    ObjectNode information = result.putObject("merchantInformation");
+    information.put("merchantId", ConfigUtil.getConfig("MERCHANT_ID", ""));
+    ArrayNode accounts = information.putArray("accounts");
+    ObjectNode deposit = accounts.addObject();
+    deposit.put("accountType", "MERCHANT_DEPOSIT_ACCOUNT");
+    deposit.putObject("mappedTotalAmount").put("amount", "100000000000").put("currency", "IDR");
+    return Reply.of(200, envelope(body, result));
+  }
+
+  private Reply sandboxTools(JsonNode body) {
+    String virtualAccountNo = LocalJson.text(body.path("requestBody"), "virtualAccountNo");
+    boolean paid = ledger.payByPaymentCode(virtualAccountNo);
+    return Reply.of(paid ? 200 : 404, LocalJson.MAPPER.createObjectNode().put("success", paid));
+  }
+
+  private FixtureCases cases(LocalRoute route) {
+    return fixtures.computeIfAbsent(route.fixture() + '#' + route.title(),
+        key -> new FixtureCases(route.fixture(), route.title()));
+  }
+
+  private static Reply reply(FixtureCases cases, String caseName, JsonNode request) {
+    if (caseName == null) {
+      return Reply.of(404, LocalJson.MAPPER.createObjectNode()
+          .put("responseCode", "4040000")
+          .put("responseMessage", "No fixture case under " + cases.title()));
+    }
+    return Reply.of(response(cases, caseName, request));
+  }
+
+  private static ObjectNode response(FixtureCases cases, String caseName, JsonNode request) {
+    ObjectNode response = cases.response(caseName);
+    LocalJson.fill(response, request);
+    return response;
+  }
+
+  /**
+   * Replays the fixture case with this error code when the title has one, otherwise synthesizes
+   * {@code status + service code + caseCode} with the given message.
+   */
+  private static Reply error(FixtureCases cases, int status, String caseCode, String message, String hint,
+      JsonNode request) {
+    String caseName = cases.withCode(status, caseCode, hint);
+    if (caseName != null) {
+      return reply(cases, caseName, request);
+    }
+    return Reply.of(status, LocalJson.MAPPER.createObjectNode()
+        .put("responseCode", status + cases.serviceCode() + caseCode)
+        .put("responseMessage", message));
+  }
+
+  private static ObjectNode envelope(JsonNode request, ObjectNode responseBody) {
+    ObjectNode envelope = LocalJson.MAPPER.createObjectNode();
+    ObjectNode response = envelope.putObject("response");
+    ObjectNode head = response.putObject("head");
+    JsonNode requestHead = request.path("request").path("head");
+    head.put("version", requestHead.path("version").asText("2.0"));
+    head.put("function", requestHead.path("function").asText(""));
+    head.put("clientId", requestHead.path("clientId").asText(""));
+    head.put("reqMsgId", requestHead.path("reqMsgId").asText(""));
+    head.put("respTime", LocalJson.now());
+    response.set("body", responseBody);
+    envelope.put("signature", "local");
+    return envelope;
+  }
+
+  private static ObjectNode successResult() {
+    ObjectNode result = LocalJson.MAPPER.createObjectNode();
+    result.putObject("resultInfo")
+        .put("resultStatus", "S")
+        .put("resultCodeId", "00000000")
+        .put("resultCode", "SUCCESS")
+        .put("resultMsg", "success");
+    return result;
+  }
+
+  private static ObjectNode objectField(ObjectNode parent, String field) {
+    JsonNode child = parent.get(field);
+    return child instanceof ObjectNode ? (ObjectNode) child : parent.putObject(field);
+  }
+
+  private static String amount(JsonNode body) {
+    JsonNode value = body.path("amount").path("value");
+    return value.isMissingNode() || value.isNull() ? null : value.asText();
+  }
+
+  private static String refundAmount(JsonNode body) {
+    JsonNode value = body.path("refundAmount").path("value");
+    return value.isMissingNode() || value.isNull() ? amount(body) : value.asText();
+  }
+
+  private static String encode(String value) {
+    try {
+      return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    try (InputStream input = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int read; (read = input.read(buffer)) != -1; ) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static void send(HttpExchange exchange, Reply reply) throws IOException {
+    byte[] bytes = LocalJson.MAPPER.writeValueAsBytes(reply.body);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(reply.status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static final class Reply {
+
+    private final int status;
+    private final JsonNode body;
+
+    private Reply(int status, JsonNode body) {
+      this.status = status;
+      this.body = body;
+    }
+
+    static Reply of(int status, JsonNode body) {
+      return new Reply(status, body);
+    }
+
+    /** HTTP status taken from the first three digits of the SNAP {@code responseCode}. */
+    static Reply of(ObjectNode response) {
+      String code = response.path("responseCode").asText();
+      int status = 200;
+      if (code.length() >= 3) {
+        try {
+          status = Integer.parseInt(code.substring(0, 3));
+        } catch (NumberFormatException e) {
+          status = 200;
+        }
+      }
+      return new Reply(status, response);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package id.dana.util.local;
+
+import id.dana.util.RsaSigner;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import okio.ByteString;
+
+/**
+ * Checks {@code X-SIGNATURE} the way the sandbox does, against the public half of the configured
+ * {@code PRIVATE_KEY}.
+ *
+ * <p>Transactional calls sign {@code METHOD:path:hex(sha256(minified body)):X-TIMESTAMP}; the
+ * access-token call signs {@code X-CLIENT-KEY|X-TIMESTAMP}, a form accepted on that route only.
+ */
+final class SnapSignatureVerifier {
+
+  private final PublicKey publicKey;
+
+  private SnapSignatureVerifier(PublicKey publicKey) {
+    this.publicKey = publicKey;
+  }
+
+  /**
+   * Verifier for the merchant key.
+   *
+   * @throws IllegalStateException when {@code PRIVATE_KEY} cannot be parsed or carries no public
+   *     exponent; run with {@code LOCAL_SANDBOX_VERIFY_SIGNATURE=false} to skip the check instead
+   */
+  static SnapSignatureVerifier forMerchantKey() {
+    PrivateKey privateKey;
+    try {
+      privateKey = RsaSigner.merchantKey();
+    } catch (GeneralSecurityException | RuntimeException e) {
+      throw new IllegalStateException("[LOCAL] PRIVATE_KEY could not be parsed to verify X-SIGNATURE; "
+          + "set LOCAL_SANDBOX_VERIFY_SIGNATURE=false to skip the check", e);
+    }
+    if (!(privateKey instanceof RSAPrivateCrtKey)) {
+      throw new IllegalStateException("[LOCAL] PRIVATE_KEY carries no public exponent to verify X-SIGNATURE; "
+          + "set LOCAL_SANDBOX_VERIFY_SIGNATURE=false to skip the check");
+    }
+    RSAPrivateCrtKey crt = (RSAPrivateCrtKey) privateKey;
+    try {
+      PublicKey publicKey = KeyFactory.getInstance("RSA")
+          .generatePublic(new RSAPublicKeySpec(crt.getModulus(), crt.getPublicExponent()));
+      return new SnapSignatureVerifier(publicKey);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("[LOCAL] No public key for PRIVATE_KEY to verify X-SIGNATURE", e);
+    }
+  }
+
+  /**
+   * Whether {@code signature} signs this request. {@code accessTokenRoute} allows the
+   * {@code X-CLIENT-KEY|X-TIMESTAMP} form, which only the access-token call uses.
+   */
+  boolean verify(String method, String pathAndQuery, byte[] body, String minifiedBody,
+      String timestamp, boolean accessTokenRoute, String clientKey, String signature) {
+    if (signature == null || signature.isEmpty()) {
+      return false;
+    }
+    byte[] signatureBytes;
+    try {
+      signatureBytes = Base64.getDecoder().decode(signature);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    for (String candidate : stringsToSign(method, pathAndQuery, body, minifiedBody, timestamp,
+        accessTokenRoute ? clientKey : null)) {
+      if (verify(candidate, signatureBytes)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> stringsToSign(String method, String pathAndQuery, byte[] body,
+      String minifiedBody, String timestamp, String clientKey) {
+    List<String> candidates = new ArrayList<>(3);
+    candidates.add(method + ":" + pathAndQuery + ":" + sha256Hex(body) + ":" + timestamp);
+    if (minifiedBody != null) {
+      candidates.add(method + ":" + pathAndQuery + ":"
+          + sha256Hex(minifiedBody.getBytes(StandardCharsets.UTF_8)) + ":" + timestamp);
+    }
+    if (clientKey != null) {
+      candidates.add(clientKey + "|" + timestamp);
+    }
+    return candidates;
+  }
+
+  private boolean verify(String stringToSign, byte[] signatureBytes) {
+    try {
+      Signature verifier = Signature.getInstance("SHA256withRSA");
+      verifier.initVerify(publicKey);
+      verifier.update(stringToSign.getBytes(StandardCharsets.UTF_8));
+      return verifier.verify(signatureBytes);
+    } catch (GeneralSecurityException e) {
+      return false;
+    }
+  }
+
+  private static String sha256Hex(byte[] data) {
+    return ByteString.of(data).sha256().hex();
+  }
+}
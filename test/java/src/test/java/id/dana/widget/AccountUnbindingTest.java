@@ -1,10 +1,8 @@
 package id.dana.widget;
 
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.*;
@@ -12,6 +10,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
@@ -20,6 +20,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
 public class AccountUnbindingTest {
     private final static String USER_PIN = "181818";
     private final static String USER_PHONE_NUMBER = "083811223355";
@@ -32,22 +34,13 @@ public class AccountUnbindingTest {
     private static String accessToken;
 
     @BeforeAll
-    static void setUp() throws
+    static void setUp(WidgetApi widgetApi) throws
             UnsupportedEncodingException,
             NoSuchAlgorithmException,
             InvalidKeySpecException,
             SignatureException,
             InvalidKeyException {
-
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-        widgetApi = Dana.getInstance().getWidgetApi();
+        AccountUnbindingTest.widgetApi = widgetApi;
 
         authCode = OauthUtil.getAuthCode(
                 ConfigUtil.getConfig("X_PARTNER_ID", ""),
@@ -71,7 +64,13 @@ public class AccountUnbindingTest {
         requestData.setMerchantId(ConfigUtil.getConfig("MERCHANT_ID", ""));
         requestData.setAdditionalInfo(additionalInfo);
 
-        AccountUnbindingResponse response = widgetApi.accountUnbinding(requestData);
+        AccountUnbindingResponse response;
+        try {
+            response = widgetApi.accountUnbinding(requestData);
+        } finally {
+            // The unbind revokes every token of the user, including the one other suites get cached
+            OauthUtil.invalidateAccessToken(USER_PHONE_NUMBER);
+        }
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, null);
     }
 
@@ -1,11 +1,8 @@
 package id.dana.widget;
 
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
-import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.*;
@@ -13,6 +10,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
@@ -21,6 +20,8 @@ import java.security.NoSuchAlgorithmException;
 import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
 public class ApplyOttTest {
     private static final String USER_PIN = "181818";
     private static final String USER_PHONE_NUMBER = "083811223355";
@@ -32,22 +33,13 @@ public class ApplyOttTest {
     private static String accessToken;
 
     @BeforeAll
-    static void setUp() throws
+    static void setUp(WidgetApi widgetApi) throws
             UnsupportedEncodingException,
             NoSuchAlgorithmException,
             InvalidKeySpecException,
             SignatureException,
             InvalidKeyException {
-
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-        widgetApi = Dana.getInstance().getWidgetApi();
+        ApplyOttTest.widgetApi = widgetApi;
 
         accessToken = OauthUtil.getAccessToken(
                 USER_PHONE_NUMBER,
@@ -55,7 +47,6 @@ public class ApplyOttTest {
         );
     }
 
-    @Test
     @RetryTestUtil.Retry
     void testApplyOttSuccess() throws IOException {
         String caseName = "ApplyOttSuccess";
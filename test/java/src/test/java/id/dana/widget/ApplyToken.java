@@ -1,22 +1,25 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.invoker.model.exception.DanaException;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.v1.model.CreateOrderResponse;
+import id.dana.util.AccessTokenCache;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.*;
 import okhttp3.OkHttpClient;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,9 +31,12 @@ import java.security.SignatureException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.fail;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
 public class ApplyToken {
     private static final Logger log = LoggerFactory.getLogger(CreateOrderTest.class);
     private static final String USER_PIN = "181818";
@@ -42,17 +48,8 @@ public class ApplyToken {
     public static WidgetApi widgetApi;
 
     @BeforeAll
-    static void setUp() {
-
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-        widgetApi = Dana.getInstance().getWidgetApi();
+    static void setUp(WidgetApi widgetApi) {
+        ApplyToken.widgetApi = widgetApi;
     }
 
     @Test
@@ -137,7 +134,7 @@ public class ApplyToken {
         Map<String, Object> variableDict = new HashMap<>();
         
         customHeaders.put(DanaHeader.X_SIGNATURE, RandomStringUtils.randomAlphanumeric(5));
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -154,22 +151,24 @@ public class ApplyToken {
     }
 
     public static String applyToken(String authCode) {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
+        return applyTokenResponse(authCode).getAccessToken().toString();
+    }
 
-        DanaConfig.getInstance(danaConfigBuilder);
-        widgetApi = Dana.getInstance().getWidgetApi();
+    /** Access token and its expiry for {@link AccessTokenCache}. */
+    public static AccessTokenCache.Token applyTokenForCache(String authCode) {
+        ApplyTokenResponse response = applyTokenResponse(authCode);
+        return AccessTokenCache.Token.of(response.getAccessToken().toString(),
+                Objects.toString(response.getAccessTokenExpiryTime(), null));
+    }
+
+    private static ApplyTokenResponse applyTokenResponse(String authCode) {
+        widgetApi = DanaBootstrap.widgetApi();
 
         ApplyTokenAuthorizationCodeRequest requestData = TestUtil.getRequest(jsonPathFile, "ApplyToken", "ApplyTokenSuccess",
                 ApplyTokenAuthorizationCodeRequest.class);
 
         requestData.setAuthCode(authCode);
 
-        ApplyTokenResponse response = widgetApi.applyToken(requestData);
-        return response.getAccessToken().toString();
+        return widgetApi.applyToken(requestData);
     }
 }
\ No newline at end of file
@@ -1,13 +1,11 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.*;
@@ -15,6 +13,7 @@ import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
@@ -27,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 
 @Disabled
+@ExtendWith(DanaExtension.class)
 public class BalanceInquiryTest {
     private static String jsonPathFile = RefundOrderTest.class.getResource("/request/components/Widget.json")
             .getPath();
@@ -40,17 +40,8 @@ public class BalanceInquiryTest {
     private static String partnerReferenceNoInit;
 
     @BeforeAll
-    static void setUp() throws UnsupportedEncodingException, NoSuchAlgorithmException, InvalidKeySpecException, SignatureException, InvalidKeyException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        widgetApi = Dana.getInstance().getWidgetApi();
+    static void setUp(WidgetApi widgetApi) throws UnsupportedEncodingException, NoSuchAlgorithmException, InvalidKeySpecException, SignatureException, InvalidKeyException {
+        BalanceInquiryTest.widgetApi = widgetApi;
 
         List<String> dataOrder = PaymentWidgetUtil.createPayment("PaymentSuccess");
         partnerReferenceNoInit = dataOrder.get(0);
@@ -103,7 +94,7 @@ public class BalanceInquiryTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -198,7 +189,7 @@ public class BalanceInquiryTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "test");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
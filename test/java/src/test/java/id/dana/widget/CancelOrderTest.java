@@ -1,15 +1,13 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
+import id.dana.util.DanaExtension;
 import id.dana.util.RetryTestUtil;
+import id.dana.util.SandboxResources;
 import id.dana.widget.v1.model.*;
 import id.dana.paymentgateway.v1.model.CreateOrderByRedirectRequest;
 import id.dana.paymentgateway.v1.model.CreateOrderResponse;
@@ -26,6 +24,8 @@ import io.restassured.specification.RequestSpecification;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +33,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
 public class CancelOrderTest {
     private static String jsonPathFile = CancelOrderTest.class.getResource("/request/components/Widget.json")
             .getPath();
@@ -45,17 +47,8 @@ public class CancelOrderTest {
     private static String partnerReferenceNoInit,partnerReferenceNoRefunded;
 
     @BeforeAll
-    static void setUp() throws InterruptedException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        widgetApi = Dana.getInstance().getWidgetApi();
+    static void setUp(WidgetApi widgetApi) throws InterruptedException {
+        CancelOrderTest.widgetApi = widgetApi;
 
         partnerReferenceNoInit = String.valueOf(UUID.randomUUID());
     }
@@ -101,7 +94,6 @@ public class CancelOrderTest {
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, null);
     }
 
-    @Test
     @RetryTestUtil.Retry
     void testCancelOrderTransactionNotFound() throws IOException {
         String caseName = "CancelOrderFailOrderNotExist";
@@ -135,7 +127,6 @@ public class CancelOrderTest {
         TestUtil.assertResponse(jsonPathFile, titleCase, caseName, response, null);
     }
 
-    @Test
     @RetryTestUtil.Retry
     @DisabledIfEnvironmentVariable(named = "CI", matches = ".*")
     void testCancelOrderFailOrderInvalidStatus() throws IOException, InterruptedException {
@@ -232,7 +223,7 @@ public class CancelOrderTest {
     public static String payOrder(String phoneNumber, String pin) throws InterruptedException {
         List<String> dataOrder = createPayment("PaymentSuccess");
         PaymentWidgetUtil.payOrder(phoneNumber,pin,dataOrder.get(1));
-        Thread.sleep(5000); // Wait for the payment to be processed
+        PaymentWidgetUtil.awaitPaymentStatus(dataOrder.get(0), "SUCCESS"); // Wait for the payment to be processed
         return dataOrder.get(0);
     }
 }
\ No newline at end of file
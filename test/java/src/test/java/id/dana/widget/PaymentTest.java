@@ -1,12 +1,8 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.PaymentPGUtil;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
@@ -14,6 +10,8 @@ import id.dana.paymentgateway.v1.model.CreateOrderByApiRequest;
 import id.dana.paymentgateway.v1.model.CreateOrderByRedirectRequest;
 import id.dana.paymentgateway.v1.model.CreateOrderResponse;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.Money;
@@ -32,6 +30,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.File;
 import java.io.IOException;
@@ -46,6 +45,7 @@ import java.util.concurrent.Executors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ExtendWith(DanaExtension.class)
 public class PaymentTest {
     private static final Logger log = LoggerFactory.getLogger(PaymentTest.class);
     private static final String titleCase = "Payment";
@@ -61,22 +61,13 @@ public class PaymentTest {
     private String partnerReferenceNo;
 
     @BeforeEach
-    void setUp() throws IOException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
+    void setUp(WidgetApi widgetApi, PaymentGatewayApi paymentGatewayApi) throws IOException {
         // Generate a unique partner reference number for each test run
         partnerReferenceNo = UUID.randomUUID().toString();
         log.info("[REF] partnerReferenceNo={}", partnerReferenceNo);
 
-        widgetApi = Dana.getInstance().getWidgetApi();
-        paymentGatewayApi = Dana.getInstance().getPaymentGatewayApi();
+        this.widgetApi = widgetApi;
+        this.paymentGatewayApi = paymentGatewayApi;
     }
 
     @Test
@@ -154,7 +145,7 @@ public class PaymentTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -181,7 +172,7 @@ public class PaymentTest {
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "testing");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
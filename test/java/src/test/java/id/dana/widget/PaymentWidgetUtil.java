@@ -1,13 +1,11 @@
 package id.dana.widget;
 
-import id.dana.invoker.Dana;
-import id.dana.invoker.model.DanaConfig;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.PaymentPGUtil;
+import id.dana.util.Await;
 import id.dana.util.BrowserTestSupport;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.*;
@@ -33,16 +31,7 @@ public class PaymentWidgetUtil {
     public static List<String> createPayment(String paymentOrigin) {
         List<String> dataOrder = new ArrayList<>();
 
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        widgetApi = Dana.getInstance().getWidgetApi();
+        widgetApi = DanaBootstrap.widgetApi();
 
         WidgetPaymentRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase,
                 paymentOrigin, WidgetPaymentRequest.class);
@@ -67,4 +56,22 @@ public class PaymentWidgetUtil {
 
         return dataOrder;
     }
+
+    /**
+     * Polls {@code queryPayment} until the widget order reports {@code transactionStatusDesc}
+     * (e.g. "SUCCESS", "INIT", "CANCELLED") and returns the last response, matching or not.
+     */
+    public static QueryPaymentResponse awaitPaymentStatus(String partnerReferenceNo, String transactionStatusDesc) {
+        QueryPaymentRequest requestData = TestUtil.getRequest(jsonPathFile, "QueryOrder", "QueryOrderSuccessPaid",
+                QueryPaymentRequest.class);
+        requestData.setOriginalPartnerReferenceNo(partnerReferenceNo);
+        requestData.setMerchantId(merchantId);
+
+        WidgetApi api = DanaBootstrap.widgetApi();
+        return Await.poll("widget order " + partnerReferenceNo + " status " + transactionStatusDesc,
+                        () -> api.queryPayment(requestData))
+                .until(response -> transactionStatusDesc.equals(response.getTransactionStatusDesc()))
+                .ignoreExceptions()
+                .awaitOrLast();
+    }
 }
@@ -1,20 +1,21 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.PaymentPGUtil;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.CreateOrderByRedirectRequest;
 import id.dana.paymentgateway.v1.model.CreateOrderResponse;
+import id.dana.util.SandboxResources;
 import id.dana.widget.v1.api.*;
 import id.dana.widget.v1.model.*;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaBootstrap;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.OrderPool;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import io.restassured.RestAssured;
@@ -29,14 +30,22 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "initOrder")
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "payingOrder")
+@OrderPool.Provision(state = OrderPool.State.CANCELLED, recipe = "cancelOrder")
+@OrderPool.Provision(state = OrderPool.State.PAID, recipe = "paidOrder", takenBy = "testQueryOrderSuccessPaid")
 public class QueryOrderTest {
     private static final Logger log = LoggerFactory.getLogger(QueryOrderTest.class);
     private static final String titleCase = "QueryOrder";
@@ -45,7 +54,7 @@ public class QueryOrderTest {
     private static final String merchantId = ConfigUtil.getConfig("MERCHANT_ID", "216620010016033632482");
     private static String USER_PIN = "181818";
     private static String USER_PHONE_NUMBER = "083811223355";
-    private static WidgetApi widgetApi;
+    private static WidgetApi widgetApi = DanaBootstrap.widgetApi();
     private static String
             partnerReferenceNoPaid,
             partnerReferenceNoCancel,
@@ -53,23 +62,12 @@ public class QueryOrderTest {
             partnerReferenceNoPaying;
 
     @BeforeAll
-    static void setUp() throws InterruptedException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
-
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        widgetApi = Dana.getInstance().getWidgetApi();
-
-        List<String> dataOrderInit = createPayment("PaymentSuccess");
-        List<String> dataOrderPaying = createPayment("PaymentPaying");
-        partnerReferenceNoInit = dataOrderInit.get(0);
-        partnerReferenceNoPaying = dataOrderPaying.get(0);
-        partnerReferenceNoCancel = cancelOrder();
+    static void setUp(WidgetApi widgetApi) throws InterruptedException {
+        QueryOrderTest.widgetApi = widgetApi;
+
+        partnerReferenceNoInit = OrderPool.take(QueryOrderTest.class, OrderPool.State.INIT, "initOrder");
+        partnerReferenceNoPaying = OrderPool.take(QueryOrderTest.class, OrderPool.State.INIT, "payingOrder");
+        partnerReferenceNoCancel = OrderPool.take(QueryOrderTest.class, OrderPool.State.CANCELLED);
     }
 
     @Test
@@ -96,9 +94,7 @@ public class QueryOrderTest {
         Map<String, Object> variableDict = new HashMap<>();
         String caseName = "QueryOrderSuccessPaid";
 
-        partnerReferenceNoPaid = payOrder(
-                USER_PHONE_NUMBER,
-                USER_PIN);
+        partnerReferenceNoPaid = OrderPool.take(QueryOrderTest.class, OrderPool.State.PAID);
 
         QueryPaymentRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
                 QueryPaymentRequest.class);
@@ -164,7 +160,7 @@ public class QueryOrderTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "X_TIMESTAMP");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -241,6 +237,14 @@ public class QueryOrderTest {
         return dataOrder;
     }
 
+    static List<String> initOrder() {
+        return createPayment("PaymentSuccess");
+    }
+
+    static List<String> payingOrder() {
+        return createPayment("PaymentPaying");
+    }
+
     public static String cancelOrder() {
         List<String> dataOrder = createPayment("PaymentSuccess");
         CancelOrderRequest requestDataCancel = TestUtil.getRequest(
@@ -260,7 +264,11 @@ public class QueryOrderTest {
     public static String payOrder(String phoneNumber, String pin) throws InterruptedException {
         List<String> dataOrder = createPayment("PaymentSuccess");
         PaymentWidgetUtil.payOrder(phoneNumber,pin,dataOrder.get(1));
-        Thread.sleep(5000); // Wait for the payment to be processed
+        PaymentWidgetUtil.awaitPaymentStatus(dataOrder.get(0), "SUCCESS"); // Wait for the payment to be processed
         return dataOrder.get(0);
     }
+
+    static String paidOrder() throws InterruptedException {
+        return payOrder(USER_PHONE_NUMBER, USER_PIN);
+    }
 }
@@ -1,18 +1,18 @@
 package id.dana.widget;
 
 import id.dana.interceptor.CustomHeaderInterceptor;
-import id.dana.invoker.Dana;
 import id.dana.invoker.auth.DanaAuth;
-import id.dana.invoker.model.DanaConfig;
 import id.dana.invoker.model.constant.DanaHeader;
-import id.dana.invoker.model.constant.EnvKey;
-import id.dana.invoker.model.enumeration.DanaEnvironment;
 import id.dana.paymentgateway.CreateOrderTest;
 import id.dana.paymentgateway.v1.api.PaymentGatewayApi;
 import id.dana.paymentgateway.v1.model.CreateOrderByRedirectRequest;
 import id.dana.paymentgateway.v1.model.CreateOrderResponse;
 import id.dana.widget.v1.model.*;
 import id.dana.util.ConfigUtil;
+import id.dana.util.DanaExtension;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.OrderPool;
+import id.dana.util.SandboxResources;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import io.restassured.RestAssured;
@@ -24,6 +24,8 @@ import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.ResourceLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +36,11 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+@ExtendWith(DanaExtension.class)
+@ResourceLock(SandboxResources.OAUTH_USER)
+@OrderPool.Provision(state = OrderPool.State.INIT, recipe = "initOrder")
+@OrderPool.Provision(state = OrderPool.State.REFUNDABLE, recipe = "paidOrder",
+        takenBy = {"testRefundOrderValid", "testRefundFailDuplicateRequest", "testRefundOrderInvalidSignature"})
 public class RefundOrderTest {
     private static String jsonPathFile = RefundOrderTest.class.getResource("/request/components/Widget.json")
             .getPath();
@@ -47,23 +54,18 @@ public class RefundOrderTest {
     private static String partnerReferenceNoInit, partnerReferenceNoPaid;
 
     @BeforeAll
-    static void setUp() throws InterruptedException {
-        DanaConfig.Builder danaConfigBuilder = new DanaConfig.Builder();
-        danaConfigBuilder
-                .partnerId(ConfigUtil.getConfig("X_PARTNER_ID", ""))
-                .privateKey(ConfigUtil.getConfig("PRIVATE_KEY", ""))
-                .origin(ConfigUtil.getConfig("ORIGIN", ""))
-                .env(DanaEnvironment.getByName(ConfigUtil.getConfig(EnvKey.ENV, "SANDBOX")));
+    static void setUp(WidgetApi widgetApi) throws InterruptedException {
+        RefundOrderTest.widgetApi = widgetApi;
 
-        DanaConfig.getInstance(danaConfigBuilder);
-
-        widgetApi = Dana.getInstance().getWidgetApi();
+        partnerReferenceNoInit = OrderPool.take(RefundOrderTest.class, OrderPool.State.INIT);
+    }
 
-        List<String> dataOrder = PaymentWidgetUtil.createPayment("PaymentSuccess");
-        partnerReferenceNoInit = dataOrder.get(0);
-        partnerReferenceNoPaid = payOrder(
-                USER_PHONE_NUMBER,
-                USER_PIN);
+    /** Taken by the first test that refunds it, so the checkout runs behind the earlier tests. */
+    private static synchronized String partnerReferenceNoPaid() {
+        if (partnerReferenceNoPaid == null) {
+            partnerReferenceNoPaid = OrderPool.take(RefundOrderTest.class, OrderPool.State.REFUNDABLE);
+        }
+        return partnerReferenceNoPaid;
     }
 
     @Test
@@ -71,8 +73,8 @@ public class RefundOrderTest {
         String caseName = "RefundOrderValidScenario";
         RefundOrderRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
                 RefundOrderRequest.class);
-        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid);
-        requestData.setPartnerRefundNo(partnerReferenceNoPaid);
+        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid());
+        requestData.setPartnerRefundNo(partnerReferenceNoPaid());
         requestData.setMerchantId(merchantId);
 
         RefundOrderResponse response = widgetApi.refundOrder(requestData);
@@ -84,8 +86,8 @@ public class RefundOrderTest {
         String caseName = "RefundFailDuplicateRequest";
         RefundOrderRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
                 RefundOrderRequest.class);
-        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid);
-        requestData.setPartnerRefundNo(partnerReferenceNoPaid);
+        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid());
+        requestData.setPartnerRefundNo(partnerReferenceNoPaid());
         requestData.setMerchantId(merchantId);
 
         widgetApi.refundOrder(requestData);
@@ -119,14 +121,14 @@ public class RefundOrderTest {
         String caseName = "RefundFailInvalidSignature";
         RefundOrderRequest requestData = TestUtil.getRequest(jsonPathFile, titleCase, caseName,
                 RefundOrderRequest.class);
-        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid);
-        requestData.setPartnerRefundNo(partnerReferenceNoPaid);
+        requestData.setOriginalPartnerReferenceNo(partnerReferenceNoPaid());
+        requestData.setPartnerRefundNo(partnerReferenceNoPaid());
         requestData.setMerchantId(merchantId);
 
         customHeaders.put(
                 DanaHeader.X_SIGNATURE,
                 "test");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -149,7 +151,7 @@ public class RefundOrderTest {
         customHeaders.put(
                 DanaHeader.X_TIMESTAMP,
                 "");
-        OkHttpClient client = new OkHttpClient.Builder()
+        OkHttpClient client = HttpClientFactory.newBuilder()
                 .addInterceptor(new DanaAuth())
                 .addInterceptor(new CustomHeaderInterceptor(customHeaders))
                 .build();
@@ -233,7 +235,15 @@ public class RefundOrderTest {
     public static String payOrder(String phoneNumber, String pin) throws InterruptedException {
         List<String> dataOrder = PaymentWidgetUtil.createPayment("PaymentSuccess");
         PaymentWidgetUtil.payOrder(phoneNumber,pin,dataOrder.get(1));
-        Thread.sleep(5000); // Wait for the payment to be processed
+        PaymentWidgetUtil.awaitPaymentStatus(dataOrder.get(0), "SUCCESS"); // Wait for the payment to be processed
         return dataOrder.get(0);
     }
+
+    static List<String> initOrder() {
+        return PaymentWidgetUtil.createPayment("PaymentSuccess");
+    }
+
+    static String paidOrder() throws InterruptedException {
+        return payOrder(USER_PHONE_NUMBER, USER_PIN);
+    }
 }
@@ -1,21 +1,19 @@
 package id.dana.widget;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import id.dana.interceptor.ReplaceRequestBodyInterceptor;
 import id.dana.invoker.auth.DanaAuth;
 import id.dana.paymentgateway.PaymentPGUtil;
+import id.dana.util.FixtureRepository;
+import id.dana.util.HttpClientFactory;
+import id.dana.util.SnapJson;
 import id.dana.util.TestUtil;
 import id.dana.widget.v1.api.WidgetApi;
 import id.dana.widget.v1.model.WidgetPaymentRequest;
 import id.dana.widget.v1.model.WidgetPaymentResponse;
-import java.io.File;
 import java.io.IOException;
 import okhttp3.MediaType;
-import okhttp3.OkHttpClient;
 
 /**
  * Raw JSON + body-replacement helpers so sandbox SDK amount validation does not block
@@ -23,23 +21,13 @@ import okhttp3.OkHttpClient;
  */
 final class WidgetHttpUtil {
 
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
 
   private WidgetHttpUtil() {}
 
   static JsonNode getRawRequest(String jsonPathFile, String title, String caseName)
       throws IOException {
-    JsonNode requestNode =
-        OBJECT_MAPPER.readTree(new File(jsonPathFile)).path(title).path(caseName).path("request");
-    return TestUtil.replaceTemplateValues(requestNode);
-  }
-
-  static String compactJsonForSnap(JsonNode node) throws JsonProcessingException {
-    ObjectMapper sorted =
-        new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
-    Object tree = OBJECT_MAPPER.treeToValue(node, Object.class);
-    return sorted.writeValueAsString(tree);
+    return FixtureRepository.getResolvedRequest(jsonPathFile, title, caseName);
   }
 
   /**
@@ -58,7 +46,7 @@ final class WidgetHttpUtil {
     objectNode.put("partnerReferenceNo", partnerReferenceNo);
     objectNode.put("merchantId", merchantId);
     objectNode.put("validUpTo", PaymentPGUtil.generateDateWithOffset(validUpToOffsetMinutes));
-    String payload = compactJsonForSnap(bodyNode);
+    byte[] payload = SnapJson.canonicalBytes(bodyNode);
 
     WidgetPaymentRequest shell =
         TestUtil.getRequest(jsonPathFile, "Payment", "PaymentSuccess", WidgetPaymentRequest.class);
@@ -68,7 +56,7 @@ final class WidgetHttpUtil {
 
     WidgetApi api =
         new WidgetApi(
-            new OkHttpClient.Builder()
+            HttpClientFactory.newBuilder()
                 .addInterceptor(new ReplaceRequestBodyInterceptor(payload, JSON))
                 .addInterceptor(new DanaAuth())
                 .build());